@@ -0,0 +1,17 @@
+package com.blog.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+@Configuration
+public class FastStartupConfig {
+    // Keep controllers (and the services and repositories they use) eager under lazy initialization,
+    // so the first request does not pay for creating them
+    @Bean
+    public static LazyInitializationExcludeFilter eagerControllers() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+}
@@ -3,9 +3,14 @@ package com.blog.config;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -18,6 +23,24 @@ public class SecurityConfig {
     private UserDetailsServiceImpl userDetailsService; // Inject UserDetailsServiceImpl
 
     @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint()) // Only /actuator/** goes through this chain
+            .userDetailsService(userDetailsService) // Same accounts as the backend
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll() // Health stays open for probes
+                .anyRequest().authenticated() // Metrics (/actuator/prometheus) need a login
+            )
+            .httpBasic(Customizer.withDefaults()) // Scrapers send basic auth instead of a login form
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // No session per scrape
+            .csrf(csrf -> csrf.disable()); // No browser forms on these endpoints
+
+        return http.build(); // Build the actuator filter chain
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .userDetailsService(userDetailsService) // Set user details service
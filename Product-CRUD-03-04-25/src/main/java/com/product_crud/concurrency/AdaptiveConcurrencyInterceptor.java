@@ -0,0 +1,129 @@
+package com.product_crud.concurrency;
+
+import com.product_crud.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sheds API requests before they reach a controller once the in-flight count hits an
+ * {@link AdaptiveConcurrencyLimit}. Reads (GET, HEAD) and writes have separate limits, so a slow write
+ * path does not starve reads and the other way round. Excess requests fail at once with 503 and
+ * Retry-After instead of queueing in Tomcat until the database catches up.
+ * <p>
+ * Latency is measured from just before the handler runs until the response is written. Streaming
+ * responses give their slot back when the stream starts and are not sampled.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true")
+public class AdaptiveConcurrencyInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+    private static final String LIMIT = AdaptiveConcurrencyInterceptor.class.getName() + ".limit";
+    private static final String START = AdaptiveConcurrencyInterceptor.class.getName() + ".start";
+    private static final String IN_FLIGHT = AdaptiveConcurrencyInterceptor.class.getName() + ".inFlight";
+
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+    private final long retryAfterSeconds;
+
+    public AdaptiveConcurrencyInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${concurrency-limit.reads.initial-limit:50}") int readsInitialLimit,
+            @Value("${concurrency-limit.reads.min-limit:4}") int readsMinLimit,
+            @Value("${concurrency-limit.reads.max-limit:200}") int readsMaxLimit,
+            @Value("${concurrency-limit.writes.initial-limit:20}") int writesInitialLimit,
+            @Value("${concurrency-limit.writes.min-limit:2}") int writesMinLimit,
+            @Value("${concurrency-limit.writes.max-limit:100}") int writesMaxLimit,
+            @Value("${concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${concurrency-limit.rtt-tolerance:1.5}") double tolerance,
+            @Value("${concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.reads = new AdaptiveConcurrencyLimit(readsInitialLimit, readsMinLimit, readsMaxLimit, smoothing, tolerance);
+        this.writes = new AdaptiveConcurrencyLimit(writesInitialLimit, writesMinLimit, writesMaxLimit, smoothing, tolerance);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readsRejected = register(meterRegistry, "read", reads);
+        this.writesRejected = register(meterRegistry, "write", writes);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that completes a streaming response already gave its slot back
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimit limit = read ? reads : writes;
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            (read ? readsRejected : writesRejected).increment();
+            throw new ServiceUnavailableException("Too many concurrent requests, retry later", retryAfterSeconds);
+        }
+        request.setAttribute(LIMIT, limit);
+        request.setAttribute(IN_FLIGHT, inFlight);
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(LIMIT) instanceof AdaptiveConcurrencyLimit limit) {
+            request.removeAttribute(LIMIT);
+            limit.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(LIMIT) instanceof AdaptiveConcurrencyLimit limit) {
+            request.removeAttribute(LIMIT);
+            limit.release(System.nanoTime() - (long) request.getAttribute(START),
+                    (int) request.getAttribute(IN_FLIGHT));
+        }
+    }
+
+    AdaptiveConcurrencyLimit limitFor(HttpMethod method) {
+        return isRead(method.name()) ? reads : writes;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return isRead(request.getMethod());
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String kind, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("api.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit on concurrent API requests")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("api.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("API requests currently holding a slot")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        return Counter.builder("api.concurrency.rejected")
+                .description("API requests shed with 503 because the limit was reached")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
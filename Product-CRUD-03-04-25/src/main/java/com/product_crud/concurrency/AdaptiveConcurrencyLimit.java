@@ -0,0 +1,94 @@
+package com.product_crud.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight limit that follows latency, after the gradient algorithm of Netflix's concurrency-limits.
+ * Each completed call compares a short-term latency average with a long-term one. While they agree the
+ * limit grows by about its square root per sample, so a queue can form and show up in latency. Once
+ * short-term latency exceeds the long-term one by more than the tolerance, the limit shrinks in
+ * proportion, down to half per sample. The long-term average decays towards the short-term one after
+ * a lasting change, so a new normal latency is accepted instead of holding the limit down forever.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes an in-flight slot, or returns -1 when the limit is reached. Otherwise returns the number of
+     * calls that were already in flight, to be passed back to {@link #release(long, int)}.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    // Frees the slot and feeds the call's latency into the limit
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    // Frees the slot without a sample, for calls whose duration says nothing about the backend
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * (2 / (SHORT_WINDOW + 1));
+        longRttNanos += (rttNanos - longRttNanos) * (2 / (LONG_WINDOW + 1));
+        if (longRttNanos > 2 * shortRttNanos) {
+            // Latency dropped for good, e.g. after a slow period; let the baseline follow faster
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        // Mostly idle callers say nothing about how much concurrency the backend takes
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - smoothing) + target * smoothing));
+    }
+}
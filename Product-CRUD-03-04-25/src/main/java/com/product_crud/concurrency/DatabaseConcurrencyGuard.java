@@ -0,0 +1,96 @@
+package com.product_crud.concurrency;
+
+import com.product_crud.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the threads doing database work at the connection pool size. Callers wait on a fair
+ * semaphore, which parks virtual threads cheaply, instead of thousands of them queueing inside
+ * Hikari's getConnection(). A permit is held for the outermost transactional or repository call,
+ * which is as long as the call holds a connection; nested calls on the same thread reuse it.
+ */
+@Aspect
+@Component
+// Just inside ServiceMetricsAspect, so service timings include the wait for a permit
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Profile("!reactive")
+@ConditionalOnProperty(name = "db.concurrency-guard.enabled", havingValue = "true")
+public class DatabaseConcurrencyGuard {
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public DatabaseConcurrencyGuard(
+            MeterRegistry meterRegistry,
+            @Value("${db.concurrency-guard.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permitCount,
+            @Value("${db.concurrency-guard.acquire-timeout-ms:${spring.datasource.hikari.connection-timeout:30000}}")
+            long acquireTimeoutMillis) {
+        this.permits = new Semaphore(permitCount, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+
+        Gauge.builder("db.guard.permits.available", permits, Semaphore::availablePermits)
+                .description("Database permits not currently held")
+                .register(meterRegistry);
+        Gauge.builder("db.guard.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("db.guard.wait")
+                .description("Time spent waiting for a database permit")
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("db.guard.rejected");
+    }
+
+    @Around("@within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] calls = depth.get();
+        if (calls[0] == 0) {
+            acquire();
+        }
+        calls[0]++;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (--calls[0] == 0) {
+                permits.release();
+            }
+        }
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Database is saturated, retry later", RETRY_AFTER_SECONDS);
+        }
+    }
+}
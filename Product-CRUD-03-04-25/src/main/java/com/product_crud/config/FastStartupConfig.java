@@ -0,0 +1,17 @@
+package com.product_crud.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+// Under spring.main.lazy-initialization (the fast-startup profile) controllers still start eagerly, and with them
+// the services, repositories and EntityManagerFactory they need, so the first request does not pay for them
+@Configuration
+public class FastStartupConfig {
+    @Bean
+    public static LazyInitializationExcludeFilter eagerControllers() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+}
@@ -0,0 +1,16 @@
+package com.product_crud.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Serves the reactive profile from Reactor Netty; Boot would otherwise pick the Tomcat the servlet stack brings along
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,10 @@
+package com.product_crud.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs the replica health check and the comment statistics reconciliation
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
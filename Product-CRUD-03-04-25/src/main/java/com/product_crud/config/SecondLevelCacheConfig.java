@@ -0,0 +1,70 @@
+package com.product_crud.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level and query cache on Caffeine through JCache. Every region is created here from
+// second-level-cache.regions.* in application.properties; an entity naming an unconfigured region fails startup
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(SecondLevelCacheConfig.RegionProperties.class)
+public class SecondLevelCacheConfig {
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(RegionProperties properties) {
+        // A manager of its own per application context, so test contexts never share regions
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager(
+                URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.getRegions().forEach((name, region) -> cacheManager.createCache(name, new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(region.getMaxEntries()))
+                .setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()))));
+        // Last-write time per table; must never expire or be evicted, or stale query results would be served
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("second-level-cache")
+    public static class RegionProperties {
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        @Getter
+        @Setter
+        public static class Region {
+            private long maxEntries = 1000;
+            private Duration timeToLive = Duration.ofMinutes(10);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.product_crud.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets (?fields=). ProductDto and CommentDto carry a @JsonFilter; every mapper built
+ * from Boot's builder (JSON, CBOR, Smile, WebFlux codecs, the export writer) writes all properties
+ * unless a response narrows the filter with {@link #select}.
+ */
+@Configuration
+public class SparseFieldsConfig {
+    private static final SimpleBeanPropertyFilter ALL_PROPERTIES = SimpleBeanPropertyFilter.serializeAll();
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(ALL_PROPERTIES));
+    }
+
+    // Wraps a response body so the given filter only writes the selected properties; null writes them all
+    public static MappingJacksonValue select(Object body, String filterId, Collection<String> properties) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (properties == null) {
+            return value;
+        }
+        value.setFilters(new SimpleFilterProvider()
+                .setDefaultFilter(ALL_PROPERTIES)
+                .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(Set.copyOf(properties))));
+        return value;
+    }
+}
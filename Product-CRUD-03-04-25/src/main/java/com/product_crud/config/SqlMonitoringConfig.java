@@ -0,0 +1,20 @@
+package com.product_crud.config;
+
+import com.product_crud.monitoring.SqlStatementInspector;
+import com.product_crud.monitoring.SqlTimingSessionListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hooks the per-request SQL statistics into every Hibernate session
+@Configuration
+public class SqlMonitoringConfig {
+    @Bean
+    public HibernatePropertiesCustomizer sqlMonitoringCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+}
@@ -6,12 +6,14 @@ import com.product_crud.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
@@ -37,6 +39,12 @@ public class CategoryController {
         return ResponseEntity.ok(categoryService.updateCategory(id, categoryDto));
     }
 
+    @DeleteMapping
+    public ResponseEntity<Void> deleteCategories(@RequestParam List<Long> ids) {
+        categoryService.deleteCategories(ids);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
         categoryService.deleteCategory(id);
@@ -1,29 +1,59 @@
 package com.product_crud.controller;
 
+import com.product_crud.config.SparseFieldsConfig;
+import com.product_crud.ingest.CommentWriteBehindBuffer;
 import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CommentField;
+import com.product_crud.payload.CursorPageDto;
 import com.product_crud.service.CommentService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/comments")
 @RequiredArgsConstructor
 public class CommentController {
     private final CommentService commentService;
+    private final CommentWriteBehindBuffer commentWriteBehindBuffer;
 
     @PostMapping("/{productId}")
-    public ResponseEntity<CommentDto> addComment(@PathVariable Long productId, @RequestBody CommentDto commentDto) {
+    public ResponseEntity<CommentDto> addComment(@PathVariable Long productId, @Valid @RequestBody CommentDto commentDto) {
+        if (commentWriteBehindBuffer.isEnabled()) {
+            // Only acknowledged here, the comment is inserted with the writer's next batch
+            commentWriteBehindBuffer.enqueue(productId, commentDto.getContent());
+            return ResponseEntity.accepted().build();
+        }
         return ResponseEntity.ok(commentService.addCommentToProduct(productId, commentDto));
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<List<CommentDto>> getCommentsByProduct(@PathVariable Long productId) {
-        return ResponseEntity.ok(commentService.getCommentsByProduct(productId));
+    public ResponseEntity<MappingJacksonValue> getCommentsByProduct(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
+        Set<CommentField> selected = CommentField.parse(fields);
+        CursorPageDto<CommentDto> page = commentService.getCommentsByProduct(productId, after, limit, selected);
+        return ResponseEntity.ok(SparseFieldsConfig.select(page, CommentDto.FIELDS_FILTER, CommentField.isAll(selected)
+                ? null
+                : selected.stream().map(CommentField::getProperty).collect(Collectors.toList())));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteComments(@RequestParam List<Long> ids) {
+        commentService.deleteComments(ids);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
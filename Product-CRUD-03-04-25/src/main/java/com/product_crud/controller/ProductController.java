@@ -1,16 +1,36 @@
 package com.product_crud.controller;
 
+import com.product_crud.config.SparseFieldsConfig;
+import com.product_crud.exception.PreconditionFailedException;
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.BulkPriceUpdateRequest;
+import com.product_crud.payload.BulkProductRequest;
+import com.product_crud.payload.BulkUpdateResultDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ExportFormat;
+import com.product_crud.payload.FacetedProductPageDto;
 import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductField;
+import com.product_crud.payload.ProductPatchDto;
+import com.product_crud.payload.ProductSort;
 import com.product_crud.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
@@ -21,21 +41,115 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productDto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportReportDto> importProducts(@Valid @RequestBody BulkProductRequest request) {
+        return new ResponseEntity<>(productService.importProducts(request.getProducts()), HttpStatus.CREATED);
+    }
+
+    // Conditional GETs of a product and of the full list compare ETags from a version-only query before any DTO is built.
+    // ?fields=id,name,price narrows both the response and the columns read
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<MappingJacksonValue> getProduct(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        String etag = productEtag(id, productService.getProductVersion(id));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ProductDto product = productService.getProductById(id, selected);
+        return ResponseEntity.ok().eTag(productEtag(id, product.getVersion())).body(withFields(product, selected));
     }
 
+    @GetMapping(params = {"!categoryIds", "!minPrice", "!maxPrice"})
+    public ResponseEntity<MappingJacksonValue> getAllProducts(
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        String etag = listEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(withFields(productService.getAllProducts(selected), selected));
+    }
+
+    // Chosen over getAllProducts as soon as any filter parameter is present
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<MappingJacksonValue> filterProducts(
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        FacetedProductPageDto page = productService.filterProducts(categoryIds, minPrice, maxPrice, after, limit, selected);
+        return ResponseEntity.ok(withFields(page, selected));
+    }
+
+    // The page is read first: its ETag comes from the ids and versions of its own rows
+    @GetMapping("/page")
+    public ResponseEntity<MappingJacksonValue> getProductsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        CursorPageDto<ProductDto> page = productService.getProductsPage(after, limit, ProductSort.from(sort), selected);
+        String etag = "\"products-page-" + page.getContentVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(withFields(page, selected));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDto>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> productService.exportProducts(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + exportFormat.getExtension())
+                .body(body);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductDto productDto) {
-        return ResponseEntity.ok(productService.updateProduct(id, productDto));
+        ProductDto product = productService.updateProduct(id, productDto, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(productEtag(id, product.getVersion())).body(product);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProductDto> patchProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ProductPatchDto patch) {
+        ProductDto product = productService.patchProduct(id, patch, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(productEtag(id, product.getVersion())).body(product);
+    }
+
+    @PatchMapping("/prices")
+    public ResponseEntity<BulkUpdateResultDto> updatePrices(@Valid @RequestBody BulkPriceUpdateRequest request) {
+        return ResponseEntity.ok(productService.updatePrices(request.getPrices()));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteProducts(@RequestParam List<Long> ids) {
+        productService.deleteProducts(ids);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
@@ -43,4 +157,35 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private MappingJacksonValue withFields(Object body, Set<ProductField> fields) {
+        return SparseFieldsConfig.select(body, ProductDto.FIELDS_FILTER, ProductField.isAll(fields)
+                ? null
+                : fields.stream().map(ProductField::getProperty).collect(Collectors.toList()));
+    }
+
+    private String productEtag(Long id, Long version) {
+        return "\"product-" + id + "-" + version + "\"";
+    }
+
+    private String listEtag() {
+        return "\"products-" + productService.getProductListVersion() + "\"";
+    }
+
+    // If-Match must carry the product's current strong ETag; "*" matches any existing product
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"product-" + id + "-";
+        String etag = ifMatch.trim();
+        if (!etag.startsWith(prefix) || !etag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match does not match product with id: " + id);
+        }
+        try {
+            return Long.valueOf(etag.substring(prefix.length(), etag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("If-Match does not match product with id: " + id);
+        }
+    }
+}
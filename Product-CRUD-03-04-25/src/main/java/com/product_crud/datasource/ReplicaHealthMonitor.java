@@ -0,0 +1,75 @@
+package com.product_crud.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Decides whether read-only traffic may use the replica. The replica is taken out of
+ * rotation when it cannot hand out a valid connection or lags more than the allowed seconds,
+ * and put back by the next successful check.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private volatile boolean available = true;
+
+    public ReplicaHealthMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void markDown(String reason) {
+        if (available) {
+            log.warn("Routing reads to the primary, replica unavailable: {}", reason);
+        }
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.routing.health-check-interval-ms:5000}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                markDown("connection is not valid");
+                return;
+            }
+            if (lagQuery != null && !lagQuery.isBlank()) {
+                long lag = lagSeconds(connection);
+                if (lag > maxLagSeconds) {
+                    markDown("replication lag " + lag + "s exceeds " + maxLagSeconds + "s");
+                    return;
+                }
+            }
+            if (!available) {
+                log.info("Replica is healthy again, routing read-only transactions to it");
+            }
+            available = true;
+        } catch (SQLException ex) {
+            markDown(ex.getMessage());
+        }
+    }
+
+    // The lag query must return the replication delay in seconds as its first column
+    private long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return Long.MAX_VALUE;
+            }
+            long lag = resultSet.getLong(1);
+            return resultSet.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.product_crud.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_product_id", columnList = "product_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,13 +16,17 @@ import lombok.*;
 @Builder
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String content;
 
-    @ManyToOne
+    // Null for comments written before the column existed
+    private Instant createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 }
\ No newline at end of file
@@ -2,12 +2,25 @@ package com.product_crud.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_price_id", columnList = "price, id"),
+    @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +28,8 @@ import java.util.List;
 @Builder
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,14 +41,32 @@ public class Product {
     @Column(nullable = false)
     private String description;
 
+    // Optimistic lock; also the source of the product's ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Comment summary, changed under ProductRepository.findForUpdateById's row lock and repaired by CommentStatsReconciler.
+    // Left under the optimistic lock on purpose: the ETag stands for a body that includes both fields, so a new
+    // comment turns an If-Match taken before it into a 412
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long commentCount;
+
+    private Instant lastCommentAt;
+
     @ManyToMany
     @JoinTable(
         name = "product_categories",
         joinColumns = @JoinColumn(name = "product_id"),
-        inverseJoinColumns = @JoinColumn(name = "category_id")
+        inverseJoinColumns = @JoinColumn(name = "category_id"),
+        indexes = @Index(name = "idx_product_categories_category_product", columnList = "category_id, product_id")
     )
+    // A Set, so adding or removing one category touches one join row instead of rewriting them all.
+    // Cached as category ids, resolved through the categories region
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-categories")
     @Builder.Default
-    private List<Category> categories = new ArrayList<>();
+    private Set<Category> categories = new HashSet<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -1,11 +1,18 @@
 package com.product_crud.exception;
 
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,12 +23,73 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> handleBadRequest(BadRequestException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return new ResponseEntity<>("The resource was modified concurrently, reload it and retry", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return new ResponseEntity<>(integrityViolationMessage(ex), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        return new ResponseEntity<>(fieldErrors(ex.getBindingResult()), HttpStatus.BAD_REQUEST);
+    }
+
+    // The reactive stack's counterpart of MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        return new ResponseEntity<>(fieldErrors(ex.getBindingResult()), HttpStatus.BAD_REQUEST);
+    }
+
+    // Says which kind of constraint failed, from the SQL state and vendor code of MySQL and H2, without
+    // passing the database's own message (table and constraint names) on to the client
+    private static String integrityViolationMessage(DataIntegrityViolationException ex) {
+        String sqlState = null;
+        int errorCode = 0;
+        if (ex.getMostSpecificCause() instanceof SQLException sql) {
+            sqlState = sql.getSQLState();
+            errorCode = sql.getErrorCode();
+        } else if (ex.getMostSpecificCause() instanceof R2dbcException r2dbc) {
+            sqlState = r2dbc.getSqlState();
+            errorCode = r2dbc.getErrorCode();
+        }
+        if ("23505".equals(sqlState) || errorCode == 1062) {
+            return "A resource with the same unique value already exists";
+        }
+        if ("23503".equals(sqlState) || errorCode == 1451) {
+            return "The resource is still referenced by other records";
+        }
+        if ("23506".equals(sqlState) || errorCode == 1452) {
+            return "The resource refers to a record that does not exist";
+        }
+        return "The request conflicts with the current state of the data";
+    }
+
+    private Map<String, String> fieldErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(error ->
+        bindingResult.getFieldErrors().forEach(error ->
                 errors.put(error.getField(), error.getDefaultMessage()));
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        return errors;
     }
 }
\ No newline at end of file
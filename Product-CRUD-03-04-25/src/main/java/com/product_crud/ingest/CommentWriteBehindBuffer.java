@@ -0,0 +1,324 @@
+package com.product_crud.ingest;
+
+import com.product_crud.entity.Comment;
+import com.product_crud.entity.Product;
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.exception.ServiceUnavailableException;
+import com.product_crud.repository.CommentRepository;
+import com.product_crud.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind ingestion for comments, enabled by comment.write-behind.enabled.
+ * Comments are only accepted for an existing product, with content the controller has already
+ * validated. Accepted comments wait in a bounded queue and a single writer thread inserts them in
+ * batches, one transaction and one product lock query per batch. A full queue is
+ * pushed back to the caller as 503 with Retry-After, and the queue is drained on shutdown.
+ * Comments were already acknowledged with 202, so a failed batch is not given up: transient
+ * failures (lock timeouts, lost connections) are retried with exponential backoff, and a batch
+ * the database rejects is written again one comment per transaction so only the bad row is lost.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class CommentWriteBehindBuffer implements SmartLifecycle {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final CommentRepository commentRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<PendingComment> queue;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentWriteBehindBuffer(CommentRepository commentRepository,
+                                    ProductRepository productRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${comment.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${comment.write-behind.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${comment.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${comment.write-behind.offer-timeout-ms:50}") long offerTimeoutMillis,
+                                    @Value("${comment.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis,
+                                    @Value("${comment.write-behind.max-retries:5}") int maxRetries,
+                                    @Value("${comment.write-behind.retry-backoff-ms:100}") long retryBackoffMillis) {
+        this.commentRepository = commentRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("comments.write_behind.queue.depth", queue, Collection::size)
+                .description("Comments accepted but not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("comments.write_behind.flush")
+                .description("Time to insert one batch of queued comments")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("comments.write_behind.written");
+        this.droppedCounter = meterRegistry.counter("comments.write_behind.dropped");
+        this.failedCounter = meterRegistry.counter("comments.write_behind.failed");
+        this.retriedCounter = meterRegistry.counter("comments.write_behind.retried");
+        this.rejectedCounter = meterRegistry.counter("comments.write_behind.rejected");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The product is checked before the comment is acknowledged; the version lookup is served by the query cache
+    public void enqueue(Long productId, String content) {
+        if (productRepository.findVersionById(productId).isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        if (!running) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Comment writer is not running, retry later", RETRY_AFTER_SECONDS);
+        }
+        try {
+            // Wait briefly for room before pushing back, so short spikes are absorbed
+            if (!queue.offer(new PendingComment(productId, content, Instant.now()),
+                    offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new ServiceUnavailableException("Comment queue is full, retry later", RETRY_AFTER_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while queueing the comment", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "comment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Comment writer did not drain within {} ms, {} comments left unwritten",
+                    shutdownTimeoutMillis, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started before and stopped after the web server, so no request can enqueue once the drain begins
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever piled up while the previous batch was written goes into this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.warn("Comment writer interrupted, {} comments left unwritten", queue.size() + batch.size());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<PendingComment> batch) throws InterruptedException {
+        Timer.Sample sample = Timer.start();
+        try {
+            RuntimeException failure = null;
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                if (attempt > 0) {
+                    retriedCounter.increment();
+                    Thread.sleep(retryBackoffMillis << (attempt - 1));
+                }
+                try {
+                    written(batch.size(), write(batch));
+                    return;
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                    if (!isTransient(ex)) {
+                        break;
+                    }
+                    log.warn("Writing a batch of {} queued comments failed (attempt {}), retrying: {}",
+                            batch.size(), attempt + 1, ex.getMessage());
+                }
+            }
+
+            if (isTransient(failure)) {
+                failedCounter.increment(batch.size());
+                log.error("Gave up on a batch of {} queued comments after {} retries", batch.size(), maxRetries, failure);
+                return;
+            }
+            // The database rejected something in the batch: one transaction per comment finds the bad rows
+            log.warn("Writing a batch of {} queued comments failed, writing them one by one", batch.size(), failure);
+            for (PendingComment pending : batch) {
+                try {
+                    written(1, write(List.of(pending)));
+                } catch (RuntimeException ex) {
+                    failedCounter.increment();
+                    log.error("Failed to write a queued comment for product {}", pending.productId(), ex);
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void written(int queued, int written) {
+        writtenCounter.increment(written);
+        if (written < queued) {
+            droppedCounter.increment(queued - written);
+            log.warn("Dropped {} queued comments for products that no longer exist", queued - written);
+        }
+    }
+
+    // TransactionTemplate reports a failed rollback in place of the failure that caused it, and Hikari closes
+    // the connection after a lock timeout, so the rollback fails exactly when the cause decides on a retry
+    private int write(List<PendingComment> batch) {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return insert(batch);
+                } catch (RuntimeException ex) {
+                    failure.set(ex);
+                    throw ex;
+                }
+            });
+        } catch (RuntimeException ex) {
+            throw failure.get() != null ? failure.get() : ex;
+        }
+    }
+
+    // Worth another try as is: lock and statement timeouts, deadlocks, lost or unavailable connections
+    private static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            // 08: connection exception, 40: transaction rollback (deadlock, serialization failure)
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("08") || sqlException.getSQLState().startsWith("40"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int insert(List<PendingComment> batch) {
+        // Locks every product of the batch in one query; products that no longer exist do not come back
+        Map<Long, Product> products = productRepository.findAllForUpdateByIds(batch.stream()
+                        .map(PendingComment::productId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Comment> comments = new ArrayList<>(batch.size());
+        for (PendingComment pending : batch) {
+            Product product = products.get(pending.productId());
+            if (product == null) {
+                continue;
+            }
+            comments.add(Comment.builder()
+                    .content(pending.content())
+                    .createdAt(pending.acceptedAt())
+                    .product(product)
+                    .build());
+            // The summary is flushed as one update per product, however many of its comments the batch holds
+            product.setCommentCount(product.getCommentCount() + 1);
+            if (product.getLastCommentAt() == null || pending.acceptedAt().isAfter(product.getLastCommentAt())) {
+                product.setLastCommentAt(pending.acceptedAt());
+            }
+        }
+        commentRepository.saveAll(comments);
+        return comments.size();
+    }
+
+    record PendingComment(Long productId, String content, Instant acceptedAt) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.product_crud.maintenance;
+
+import com.product_crud.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repairs drift between products.comment_count / last_comment_at and the comments table,
+ * e.g. after manual SQL or a failed write-behind batch. Walks the products in id ranges,
+ * one short transaction per range, and rewrites only the rows that are off.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class CommentStatsReconciler {
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CommentStatsReconciler(ProductRepository productRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${product.comment-stats.reconcile-batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${product.comment-stats.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long start = System.nanoTime();
+        long maxId = productRepository.findMaxId();
+        int repaired = 0;
+        for (long after = 0; after < maxId; after += batchSize) {
+            long from = after;
+            repaired += transactionTemplate.execute(status ->
+                    productRepository.reconcileCommentStats(from, from + batchSize));
+        }
+        log.info("Reconciled comment statistics of products up to id {} in {} ms, {} repaired",
+                maxId, (System.nanoTime() - start) / 1_000_000, repaired);
+        return repaired;
+    }
+}
@@ -0,0 +1,59 @@
+package com.product_crud.maintenance;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled id sequences past the ids already in their tables before the application takes
+ * traffic. MySQL has no sequences, so Hibernate keeps each one in a one-row table (products_seq, ...)
+ * that ddl-auto creates at 1; on a database filled through AUTO_INCREMENT the first inserts would
+ * reuse existing ids. Runs on every start and only ever raises a sequence.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class IdSequenceSeeder implements SmartInitializingSingleton {
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceSeeder(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Before the web server starts, and eager even under spring.main.lazy-initialization
+    @Override
+    public void afterSingletonsInstantiated() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    // Real sequences (H2, MariaDB, PostgreSQL) never met AUTO_INCREMENT ids here; only tables need it
+                    if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                            && !generator.getDatabaseStructure().isPhysicalSequence()
+                            && persister instanceof AbstractEntityPersister entityPersister) {
+                        DatabaseStructure sequence = generator.getDatabaseStructure();
+                        seed(sequence.getPhysicalName().render(), entityPersister.getTableName(),
+                                entityPersister.getIdentifierColumnNames()[0], sequence.getIncrementSize());
+                    }
+                });
+    }
+
+    // The pooled optimizer hands out the block (next_val - increment, next_val], so next_val has to reach
+    // MAX(id) + increment for the whole next block to be free. An empty table compares with null and is skipped
+    int seed(String sequenceTable, String table, String idColumn, int incrementSize) {
+        String floor = "(select max(" + idColumn + ") + " + incrementSize + " from " + table + ")";
+        int seeded = jdbcTemplate.update("update " + sequenceTable + " set " + SequenceStyleGenerator.DEF_VALUE_COLUMN
+                + " = " + floor + " where " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < " + floor);
+        if (seeded > 0) {
+            log.info("Moved id sequence {} past the existing ids of {}", sequenceTable, table);
+        }
+        return seeded;
+    }
+}
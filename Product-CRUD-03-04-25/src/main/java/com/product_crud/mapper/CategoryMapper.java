@@ -0,0 +1,18 @@
+package com.product_crud.mapper;
+
+import com.product_crud.entity.Category;
+import com.product_crud.payload.CategoryDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// Stateless; the JMH mapping benchmarks create their own instance
+@Component
+@Profile("!reactive")
+public class CategoryMapper {
+    public CategoryDto toDto(Category category) {
+        return CategoryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.product_crud.mapper;
+
+import com.product_crud.entity.Category;
+import com.product_crud.entity.Product;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductField;
+import jakarta.persistence.Tuple;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Stateless; the JMH mapping benchmarks create their own instance
+@Component
+@Profile("!reactive")
+public class ProductMapper {
+    // Loads the categories collection; lists pass category ids grouped from one join-table query instead
+    public ProductDto toDto(Product product) {
+        return toDto(product, product.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toList()));
+    }
+
+    public ProductDto toDto(Product product, List<Long> categoryIds) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .description(product.getDescription())
+                .categoryIds(categoryIds)
+                .version(product.getVersion())
+                .commentCount(product.getCommentCount())
+                .lastCommentAt(product.getLastCommentAt())
+                .build();
+    }
+
+    // Sparse-fieldset row with only the selected columns; categoryIds is null unless CATEGORY_IDS is selected
+    public ProductDto toDto(Tuple row, Set<ProductField> fields, Map<Long, List<Long>> categoryIds) {
+        Long id = row.get("id", Long.class);
+        ProductDto.ProductDtoBuilder dto = ProductDto.builder().id(id);
+        for (ProductField field : fields) {
+            switch (field) {
+                case ID -> { }
+                case NAME -> dto.name(row.get("name", String.class));
+                case PRICE -> dto.price(row.get("price", Double.class));
+                case DESCRIPTION -> dto.description(row.get("description", String.class));
+                case CATEGORY_IDS -> dto.categoryIds(categoryIds.getOrDefault(id, List.of()));
+                case VERSION -> dto.version(row.get("version", Long.class));
+                case COMMENT_COUNT -> dto.commentCount(row.get("commentCount", Long.class));
+                case LAST_COMMENT_AT -> dto.lastCommentAt(row.get("lastCommentAt", Instant.class));
+            }
+        }
+        return dto.build();
+    }
+}
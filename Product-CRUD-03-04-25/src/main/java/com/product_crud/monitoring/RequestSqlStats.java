@@ -0,0 +1,61 @@
+package com.product_crud.monitoring;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SQL statistics for the HTTP request being handled on the current thread.
+ * Filled by {@link SqlStatementInspector} and {@link SqlTimingSessionListener}.
+ */
+@Slf4j
+@Getter
+public final class RequestSqlStats {
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final long slowQueryThresholdNanos;
+    private int statementCount;
+    private int slowStatementCount;
+    private long totalNanos;
+    private long slowestNanos;
+    private String slowestSql;
+    private String lastSql;
+
+    private RequestSqlStats(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdNanos = slowQueryThresholdMillis * 1_000_000;
+    }
+
+    static RequestSqlStats start(long slowQueryThresholdMillis) {
+        RequestSqlStats stats = new RequestSqlStats(slowQueryThresholdMillis);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void statementPrepared(String sql) {
+        lastSql = sql;
+    }
+
+    void statementExecuted(long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        if (nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = lastSql;
+        }
+        if (nanos >= slowQueryThresholdNanos) {
+            slowStatementCount++;
+            log.warn("Slow SQL ({} ms, {} bind parameters): {}", nanos / 1_000_000, bindCount(lastSql), lastSql);
+        }
+    }
+
+    private static int bindCount(String sql) {
+        return sql == null ? 0 : (int) sql.chars().filter(c -> c == '?').count();
+    }
+}
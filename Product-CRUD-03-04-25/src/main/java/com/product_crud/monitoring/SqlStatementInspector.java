@@ -0,0 +1,15 @@
+package com.product_crud.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Remembers the SQL of the statement about to run so timings can be attributed to it
+public class SqlStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
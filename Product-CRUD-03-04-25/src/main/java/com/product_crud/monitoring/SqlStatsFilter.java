@@ -0,0 +1,128 @@
+package com.product_crud.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link RequestSqlStats} for every API request and publishes them as
+ * Micrometer metrics, and optionally as X-Sql-* response headers. A request whose statements
+ * add up to the slow-query threshold is logged with its slowest statement.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class SqlStatsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql.monitoring.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMillis;
+
+    @Value("${sql.monitoring.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.start(slowQueryThresholdMillis);
+        HttpServletResponse target = responseHeaders ? new HeaderWritingResponse(response, stats) : response;
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            RequestSqlStats.end();
+            if (target instanceof HeaderWritingResponse wrapper) {
+                wrapper.writeHeaders();
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Total JDBC execution time per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getSlowStatementCount() > 0) {
+            meterRegistry.counter("sql.slow.statements", "method", method, "uri", uri)
+                    .increment(stats.getSlowStatementCount());
+        }
+        // Catches many quick statements adding up, which the per-statement log never reports
+        if (stats.getStatementCount() > 0 && stats.getTotalNanos() >= slowQueryThresholdMillis * 1_000_000) {
+            log.warn("Slow request SQL ({} {}, {} statements, {} ms in total, slowest {} ms): {}", method, uri,
+                    stats.getStatementCount(), stats.getTotalNanos() / 1_000_000, stats.getSlowestNanos() / 1_000_000,
+                    stats.getSlowestSql());
+        }
+    }
+
+    // Headers have to be set before the body commits the response, so they are written on first body access
+    private static class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final RequestSqlStats stats;
+        private boolean headersWritten;
+
+        HeaderWritingResponse(HttpServletResponse response, RequestSqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader("X-Sql-Statement-Count", String.valueOf(stats.getStatementCount()));
+            setHeader("X-Sql-Time-Ms", String.valueOf(stats.getTotalNanos() / 1_000_000));
+            setHeader("X-Sql-Slowest-Ms", String.valueOf(stats.getSlowestNanos() / 1_000_000));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.product_crud.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Created by Hibernate for every session; times each JDBC statement and batch execution
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statementExecuted(System.nanoTime() - executionStart);
+        }
+    }
+}
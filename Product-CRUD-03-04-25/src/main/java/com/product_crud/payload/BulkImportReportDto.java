@@ -0,0 +1,30 @@
+package com.product_crud.payload;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportReportDto {
+    private int imported;
+    private int batchSize;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BatchReport> batches;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BatchReport {
+        private int batch;
+        private int rows;
+        private long elapsedMillis;
+        private double rowsPerSecond;
+    }
+}
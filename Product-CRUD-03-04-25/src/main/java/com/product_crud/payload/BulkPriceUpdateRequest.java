@@ -0,0 +1,19 @@
+package com.product_crud.payload;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPriceUpdateRequest {
+    @NotEmpty(message = "At least one price is required")
+    @Size(max = 10000, message = "At most 10000 prices can be updated per request")
+    private List<@Valid PriceUpdateDto> prices;
+}
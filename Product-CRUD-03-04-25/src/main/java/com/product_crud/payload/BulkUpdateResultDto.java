@@ -0,0 +1,15 @@
+package com.product_crud.payload;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateResultDto {
+    private int requested;
+
+    // Existing products whose price actually changed
+    private int updated;
+}
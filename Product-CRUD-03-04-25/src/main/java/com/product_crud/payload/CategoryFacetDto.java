@@ -0,0 +1,13 @@
+package com.product_crud.payload;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryFacetDto {
+    private Long categoryId;
+    private long count;
+}
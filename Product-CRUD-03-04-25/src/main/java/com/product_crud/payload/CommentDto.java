@@ -1,6 +1,8 @@
 package com.product_crud.payload;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter
@@ -8,10 +10,15 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(CommentDto.FIELDS_FILTER)
 public class CommentDto {
+    // Narrowed per response by ?fields=, see SparseFieldsConfig
+    public static final String FIELDS_FILTER = "commentFields";
+
     private Long id;
 
     @NotBlank(message = "Comment content is required")
+    @Size(max = 255, message = "Comment content must be at most 255 characters")
     private String content;
 
     private Long productId;
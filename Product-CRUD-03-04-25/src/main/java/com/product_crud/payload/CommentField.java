@@ -0,0 +1,47 @@
+package com.product_crud.payload;
+
+import com.product_crud.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// CommentDto properties a client can select with ?fields=
+@Getter
+@RequiredArgsConstructor
+public enum CommentField {
+    ID("id"),
+    CONTENT("content"),
+    PRODUCT_ID("productId");
+
+    private final String property;
+
+    // A missing or blank value selects every field
+    public static Set<CommentField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(CommentField.class);
+        }
+        Set<CommentField> selected = EnumSet.noneOf(CommentField.class);
+        for (String name : fields.split(",")) {
+            selected.add(from(name.trim()));
+        }
+        return selected;
+    }
+
+    public static boolean isAll(Set<CommentField> fields) {
+        return fields.size() == values().length;
+    }
+
+    private static CommentField from(String property) {
+        for (CommentField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unsupported field: " + property + " (allowed: "
+                + Arrays.stream(values()).map(CommentField::getProperty).collect(Collectors.joining(", ")) + ")");
+    }
+}
@@ -0,0 +1,24 @@
+package com.product_crud.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> content;
+
+    private int limit;
+
+    // Opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+
+    // Digest of what the page shows, for its ETag; set by product pages only and never serialized
+    @JsonIgnore
+    private String contentVersion;
+}
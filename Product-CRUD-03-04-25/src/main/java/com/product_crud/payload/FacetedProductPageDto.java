@@ -0,0 +1,25 @@
+package com.product_crud.payload;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedProductPageDto {
+    private List<ProductDto> content;
+
+    private int limit;
+
+    // Last product id of this page, null when this is the last page
+    private String nextCursor;
+
+    // Products matching every filter; first page only, null once a cursor is given
+    private Long total;
+
+    // Products per category within the price range, ignoring the category filter itself; first page only
+    private List<CategoryFacetDto> categoryFacets;
+}
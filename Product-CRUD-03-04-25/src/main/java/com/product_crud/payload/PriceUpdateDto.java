@@ -0,0 +1,18 @@
+package com.product_crud.payload;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceUpdateDto {
+    @NotNull(message = "Product id is required")
+    private Long id;
+
+    @Positive(message = "Price must be greater than 0")
+    private double price;
+}
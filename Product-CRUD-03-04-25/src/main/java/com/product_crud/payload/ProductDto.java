@@ -1,8 +1,10 @@
 package com.product_crud.payload;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -10,7 +12,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(ProductDto.FIELDS_FILTER)
 public class ProductDto {
+    // Narrowed per response by ?fields=, see SparseFieldsConfig
+    public static final String FIELDS_FILTER = "productFields";
+
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -26,4 +32,10 @@ public class ProductDto {
     private List<Long> categoryIds;
 
     private List<CommentDto> comments;
+
+    private Long version;
+
+    private long commentCount;
+
+    private Instant lastCommentAt;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.product_crud.payload;
+
+import com.product_crud.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// ProductDto properties a client can select with ?fields=
+@Getter
+@RequiredArgsConstructor
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    PRICE("price"),
+    DESCRIPTION("description"),
+    CATEGORY_IDS("categoryIds"),
+    VERSION("version"),
+    COMMENT_COUNT("commentCount"),
+    LAST_COMMENT_AT("lastCommentAt");
+
+    private final String property;
+
+    // A missing or blank value selects every field
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(ProductField.class);
+        }
+        Set<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            selected.add(from(name.trim()));
+        }
+        return selected;
+    }
+
+    public static boolean isAll(Set<ProductField> fields) {
+        return fields.size() == values().length;
+    }
+
+    private static ProductField from(String property) {
+        for (ProductField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unsupported field: " + property + " (allowed: "
+                + Arrays.stream(values()).map(ProductField::getProperty).collect(Collectors.joining(", ")) + ")");
+    }
+}
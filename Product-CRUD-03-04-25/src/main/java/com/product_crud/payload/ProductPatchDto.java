@@ -0,0 +1,26 @@
+package com.product_crud.payload;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+// Every field is optional; only the ones present are applied
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPatchDto {
+    @Pattern(regexp = "(?s).*\\S.*", message = "Product name must not be blank")
+    private String name;
+
+    @Positive(message = "Price must be greater than 0")
+    private Double price;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Description must not be blank")
+    private String description;
+
+    @Size(min = 1, message = "At least one category is required")
+    private List<Long> categoryIds;
+}
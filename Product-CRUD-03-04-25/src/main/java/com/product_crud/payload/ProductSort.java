@@ -0,0 +1,16 @@
+package com.product_crud.payload;
+
+import com.product_crud.exception.BadRequestException;
+
+public enum ProductSort {
+    ID, PRICE, NAME;
+
+    public static ProductSort from(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Unsupported sort: " + value + " (allowed: id, price, name)");
+    }
+}
@@ -0,0 +1,45 @@
+package com.product_crud.reactive.controller;
+
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.reactive.service.ReactiveCategoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class ReactiveCategoryController {
+    private final ReactiveCategoryService categoryService;
+
+    @GetMapping
+    public Flux<CategoryDto> getAllCategories() {
+        return categoryService.getAllCategories();
+    }
+
+    @PostMapping
+    public Mono<CategoryDto> createCategory(@Valid @RequestBody CategoryDto categoryDto) {
+        return categoryService.createCategory(categoryDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CategoryDto> getCategory(@PathVariable Long id) {
+        return categoryService.getCategoryById(id);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<CategoryDto> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDto categoryDto) {
+        return categoryService.updateCategory(id, categoryDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCategory(@PathVariable Long id) {
+        return categoryService.deleteCategory(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.product_crud.reactive.controller;
+
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.reactive.service.ReactiveCommentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/comments")
+@RequiredArgsConstructor
+public class ReactiveCommentController {
+    private final ReactiveCommentService commentService;
+
+    @PostMapping("/{productId}")
+    public Mono<CommentDto> addComment(@PathVariable Long productId, @Valid @RequestBody CommentDto commentDto) {
+        return commentService.addCommentToProduct(productId, commentDto);
+    }
+
+    @GetMapping("/{productId}")
+    public Mono<CursorPageDto<CommentDto>> getCommentsByProduct(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return commentService.getCommentsByProduct(productId, after, limit);
+    }
+}
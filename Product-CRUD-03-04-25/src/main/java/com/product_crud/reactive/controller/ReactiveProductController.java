@@ -0,0 +1,48 @@
+package com.product_crud.reactive.controller;
+
+import com.product_crud.payload.ProductDto;
+import com.product_crud.reactive.service.ReactiveProductService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ReactiveProductController {
+    private final ReactiveProductService productService;
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductDto>> createProduct(@Valid @RequestBody ProductDto productDto) {
+        return productService.createProduct(productDto)
+                .map(product -> new ResponseEntity<>(product, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ProductDto> getProduct(@PathVariable Long id) {
+        return productService.getProductById(id);
+    }
+
+    // Streamed as products are read: a JSON array by default, one product per line with Accept: application/x-ndjson
+    @GetMapping
+    public Flux<ProductDto> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
+        return productService.updateProduct(id, productDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
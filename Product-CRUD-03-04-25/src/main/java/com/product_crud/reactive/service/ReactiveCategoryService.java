@@ -0,0 +1,13 @@
+package com.product_crud.reactive.service;
+
+import com.product_crud.payload.CategoryDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryService {
+    Flux<CategoryDto> getAllCategories();
+    Mono<CategoryDto> createCategory(CategoryDto categoryDto);
+    Mono<CategoryDto> getCategoryById(Long id);
+    Mono<CategoryDto> updateCategory(Long id, CategoryDto categoryDto);
+    Mono<Void> deleteCategory(Long id);
+}
@@ -0,0 +1,10 @@
+package com.product_crud.reactive.service;
+
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CursorPageDto;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCommentService {
+    Mono<CommentDto> addCommentToProduct(Long productId, CommentDto commentDto);
+    Mono<CursorPageDto<CommentDto>> getCommentsByProduct(Long productId, Long after, int limit);
+}
@@ -0,0 +1,13 @@
+package com.product_crud.reactive.service;
+
+import com.product_crud.payload.ProductDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductService {
+    Mono<ProductDto> createProduct(ProductDto productDto);
+    Mono<ProductDto> getProductById(Long id);
+    Flux<ProductDto> getAllProducts();
+    Mono<ProductDto> updateProduct(Long id, ProductDto productDto);
+    Mono<Void> deleteProduct(Long id);
+}
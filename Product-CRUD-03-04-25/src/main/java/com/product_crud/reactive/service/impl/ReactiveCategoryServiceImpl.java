@@ -0,0 +1,68 @@
+package com.product_crud.reactive.service.impl;
+
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.reactive.service.ReactiveCategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCategoryServiceImpl implements ReactiveCategoryService {
+    private final DatabaseClient databaseClient;
+    private final SequenceIdGenerator idGenerator;
+
+    @Override
+    public Flux<CategoryDto> getAllCategories() {
+        return databaseClient.sql("select id, name from categories order by id")
+                .map(row -> new CategoryDto(row.get("id", Long.class), row.get("name", String.class)))
+                .all();
+    }
+
+    @Override
+    public Mono<CategoryDto> createCategory(CategoryDto categoryDto) {
+        return idGenerator.nextId("categories_seq")
+                .flatMap(id -> databaseClient.sql("insert into categories (id, name) values (:id, :name)")
+                        .bind("id", id)
+                        .bind("name", categoryDto.getName())
+                        .then()
+                        .thenReturn(new CategoryDto(id, categoryDto.getName())));
+    }
+
+    @Override
+    public Mono<CategoryDto> getCategoryById(Long id) {
+        return databaseClient.sql("select id, name from categories where id = :id")
+                .bind("id", id)
+                .map(row -> new CategoryDto(row.get("id", Long.class), row.get("name", String.class)))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Category not found")));
+    }
+
+    @Override
+    public Mono<CategoryDto> updateCategory(Long id, CategoryDto categoryDto) {
+        return databaseClient.sql("update categories set name = :name where id = :id")
+                .bind("id", id)
+                .bind("name", categoryDto.getName())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new ResourceNotFoundException("Category not found"))
+                        : Mono.just(new CategoryDto(id, categoryDto.getName())));
+    }
+
+    @Override
+    public Mono<Void> deleteCategory(Long id) {
+        return databaseClient.sql("delete from categories where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("Category not found"))
+                        : Mono.empty());
+    }
+}
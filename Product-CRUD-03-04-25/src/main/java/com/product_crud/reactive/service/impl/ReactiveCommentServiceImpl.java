@@ -0,0 +1,97 @@
+package com.product_crud.reactive.service.impl;
+
+import com.product_crud.exception.BadRequestException;
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.reactive.service.ReactiveCommentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCommentServiceImpl implements ReactiveCommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final SequenceIdGenerator idGenerator;
+
+    @Override
+    public Mono<CommentDto> addCommentToProduct(Long productId, CommentDto commentDto) {
+        return idGenerator.nextId("comments_seq").flatMap(id -> {
+            Instant now = Instant.now();
+            // Same counter update as the servlet stack; it doubles as the product existence check
+            return databaseClient.sql("update products set comment_count = comment_count + 1,"
+                            + " last_comment_at = :now, version = version + 1 where id = :productId")
+                    .bind("now", now)
+                    .bind("productId", productId)
+                    .fetch()
+                    .rowsUpdated()
+                    .flatMap(updated -> updated == 0
+                            ? Mono.error(new ResourceNotFoundException("Product not found with id: " + productId))
+                            : databaseClient.sql("insert into comments (id, content, created_at, product_id)"
+                                            + " values (:id, :content, :createdAt, :productId)")
+                                    .bind("id", id)
+                                    .bind("content", commentDto.getContent())
+                                    .bind("createdAt", now)
+                                    .bind("productId", productId)
+                                    .then())
+                    .thenReturn(CommentDto.builder()
+                            .id(id)
+                            .content(commentDto.getContent())
+                            .productId(productId)
+                            .build())
+                    .as(transactionalOperator::transactional);
+        });
+    }
+
+    @Override
+    public Mono<CursorPageDto<CommentDto>> getCommentsByProduct(Long productId, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        // Fetch one extra row to know whether another page exists
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql("select id, content, product_id from comments"
+                        + " where product_id = :productId and id > :after order by id limit :limit")
+                .bind("productId", productId)
+                .bind("after", after == null ? 0L : after)
+                .bind("limit", limit + 1);
+
+        return query.map(row -> CommentDto.builder()
+                        .id(row.get("id", Long.class))
+                        .content(row.get("content", String.class))
+                        .productId(row.get("product_id", Long.class))
+                        .build())
+                .all()
+                .collectList()
+                // An empty first page is only an error when the product itself is missing
+                .flatMap(comments -> comments.isEmpty() && after == null
+                        ? databaseClient.sql("select id from products where id = :productId")
+                                .bind("productId", productId)
+                                .fetch()
+                                .first()
+                                .switchIfEmpty(Mono.error(
+                                        new ResourceNotFoundException("Product not found with id: " + productId)))
+                                .thenReturn(comments)
+                        : Mono.just(comments))
+                .map(comments -> {
+                    boolean hasNext = comments.size() > limit;
+                    List<CommentDto> page = hasNext ? comments.subList(0, limit) : comments;
+                    return CursorPageDto.<CommentDto>builder()
+                            .content(page)
+                            .limit(limit)
+                            .nextCursor(hasNext ? String.valueOf(page.get(page.size() - 1).getId()) : null)
+                            .build();
+                });
+    }
+}
@@ -0,0 +1,196 @@
+package com.product_crud.reactive.service.impl;
+
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.reactive.service.ReactiveProductService;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+    // One row per product and category; products without categories still get one row
+    private static final String SELECT_PRODUCTS = "select p.id, p.name, p.price, p.description, p.version,"
+            + " p.comment_count, p.last_comment_at, pc.category_id"
+            + " from products p left join product_categories pc on pc.product_id = p.id";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final SequenceIdGenerator idGenerator;
+
+    @Override
+    public Mono<ProductDto> createProduct(ProductDto productDto) {
+        return idGenerator.nextId("products_seq")
+                .flatMap(id -> validCategoryIds(productDto.getCategoryIds())
+                        .flatMap(categoryIds -> databaseClient.sql("insert into products"
+                                        + " (id, name, price, description, version, comment_count)"
+                                        + " values (:id, :name, :price, :description, 0, 0)")
+                                .bind("id", id)
+                                .bind("name", productDto.getName())
+                                .bind("price", productDto.getPrice())
+                                .bind("description", productDto.getDescription())
+                                .then()
+                                .then(insertCategoryLinks(id, categoryIds))
+                                .thenReturn(ProductDto.builder()
+                                        .id(id)
+                                        .name(productDto.getName())
+                                        .price(productDto.getPrice())
+                                        .description(productDto.getDescription())
+                                        .categoryIds(new ArrayList<>(categoryIds))
+                                        .version(0L)
+                                        .build()))
+                        .as(transactionalOperator::transactional));
+    }
+
+    @Override
+    public Mono<ProductDto> getProductById(Long id) {
+        return databaseClient.sql(SELECT_PRODUCTS + " where p.id = :id order by pc.category_id")
+                .bind("id", id)
+                .map(ProductRow::from)
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(this::mapToDto)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+    }
+
+    @Override
+    public Flux<ProductDto> getAllProducts() {
+        // One query; a product's rows are adjacent, so each product is emitted as soon as its rows are read
+        return databaseClient.sql(SELECT_PRODUCTS + " order by p.id, pc.category_id")
+                .map(ProductRow::from)
+                .all()
+                .bufferUntilChanged(ProductRow::id)
+                .map(this::mapToDto);
+    }
+
+    @Override
+    public Mono<ProductDto> updateProduct(Long id, ProductDto productDto) {
+        return validCategoryIds(productDto.getCategoryIds())
+                .flatMap(categoryIds -> databaseClient.sql("update products set name = :name, price = :price,"
+                                + " description = :description, version = version + 1 where id = :id")
+                        .bind("id", id)
+                        .bind("name", productDto.getName())
+                        .bind("price", productDto.getPrice())
+                        .bind("description", productDto.getDescription())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> updated == 0
+                                ? Mono.error(new ResourceNotFoundException("Product not found with id: " + id))
+                                : updateCategoryLinks(id, categoryIds)))
+                .then(Mono.defer(() -> getProductById(id)))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(Long id) {
+        // Comments, join rows, then the product, as in the servlet stack
+        return databaseClient.sql("delete from comments where product_id = :id").bind("id", id).then()
+                .then(databaseClient.sql("delete from product_categories where product_id = :id").bind("id", id).then())
+                .then(databaseClient.sql("delete from products where id = :id").bind("id", id).fetch().rowsUpdated())
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new ResourceNotFoundException("Product not found with id: " + id))
+                        : Mono.empty())
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Set<Long>> validCategoryIds(List<Long> categoryIds) {
+        List<Long> requested = categoryIds.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (requested.isEmpty()) {
+            return Mono.error(new ResourceNotFoundException("No valid categories found with the provided IDs"));
+        }
+        return databaseClient.sql("select id from categories where id in (:ids)")
+                .bind("ids", requested)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collect(Collectors.toCollection(TreeSet::new))
+                .flatMap(existingIds -> existingIds.isEmpty()
+                        ? Mono.error(new ResourceNotFoundException("No valid categories found with the provided IDs"))
+                        : Mono.just(existingIds));
+    }
+
+    // Only ids that were actually added or removed turn into join-table inserts and deletes
+    private Mono<Void> updateCategoryLinks(Long productId, Set<Long> categoryIds) {
+        return databaseClient.sql("select category_id from product_categories where product_id = :productId")
+                .bind("productId", productId)
+                .map(row -> row.get("category_id", Long.class))
+                .all()
+                .collect(Collectors.toSet())
+                .flatMap(currentIds -> {
+                    List<Long> removed = currentIds.stream().filter(id -> !categoryIds.contains(id)).toList();
+                    List<Long> added = categoryIds.stream().filter(id -> !currentIds.contains(id)).toList();
+                    Mono<Void> delete = removed.isEmpty() ? Mono.empty()
+                            : databaseClient.sql("delete from product_categories"
+                                            + " where product_id = :productId and category_id in (:ids)")
+                                    .bind("productId", productId)
+                                    .bind("ids", removed)
+                                    .then();
+                    return delete.then(insertCategoryLinks(productId, added));
+                });
+    }
+
+    // All join rows in one multi-row insert
+    private Mono<Void> insertCategoryLinks(Long productId, Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Mono.empty();
+        }
+        List<Long> ids = new ArrayList<>(categoryIds);
+        StringBuilder sql = new StringBuilder("insert into product_categories (product_id, category_id) values ");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:productId, :category").append(i).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(sql.toString()).bind("productId", productId);
+        for (int i = 0; i < ids.size(); i++) {
+            insert = insert.bind("category" + i, ids.get(i));
+        }
+        return insert.then();
+    }
+
+    private ProductDto mapToDto(List<ProductRow> rows) {
+        ProductRow product = rows.get(0);
+        return ProductDto.builder()
+                .id(product.id())
+                .name(product.name())
+                .price(product.price())
+                .description(product.description())
+                .categoryIds(rows.stream()
+                        .map(ProductRow::categoryId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .version(product.version())
+                .commentCount(product.commentCount())
+                .lastCommentAt(product.lastCommentAt())
+                .build();
+    }
+
+    private record ProductRow(Long id, String name, double price, String description, Long version,
+                              long commentCount, Instant lastCommentAt, Long categoryId) {
+        static ProductRow from(Readable row) {
+            return new ProductRow(
+                    row.get("id", Long.class),
+                    row.get("name", String.class),
+                    row.get("price", Double.class),
+                    row.get("description", String.class),
+                    row.get("version", Long.class),
+                    row.get("comment_count", Long.class),
+                    row.get("last_comment_at", Instant.class),
+                    row.get("category_id", Long.class));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.product_crud.repository;
+
+// Number of products in one category, as returned by the facet aggregate query
+public interface CategoryFacet {
+    Long getCategoryId();
+    long getCount();
+}
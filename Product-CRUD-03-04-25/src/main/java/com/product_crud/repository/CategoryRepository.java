@@ -2,6 +2,15 @@ package com.product_crud.repository;
 
 import com.product_crud.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    // Set-based delete: one statement, no entities loaded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Category c where c.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.product_crud.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+
+// Sparse-fieldset variant of the comment page queries: only the given CommentDto properties are selected,
+// each aliased by its property name. The id is always selected
+public interface CommentProjectionRepository {
+    // afterId null means the first page
+    List<Tuple> findPageProjected(Collection<String> properties, Long productId, Long afterId, Limit limit);
+}
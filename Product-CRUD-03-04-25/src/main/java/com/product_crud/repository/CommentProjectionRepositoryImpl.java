@@ -0,0 +1,54 @@
+package com.product_crud.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class CommentProjectionRepositoryImpl implements CommentProjectionRepository {
+    // Selectable properties and their paths; c.product.id reads the foreign key without joining products
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "c.id",
+            "content", "c.content",
+            "productId", "c.product.id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findPageProjected(Collection<String> properties, Long productId, Long afterId, Limit limit) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        selected.addAll(properties);
+        String jpql = selected.stream()
+                .map(property -> column(property) + " as " + property)
+                .collect(Collectors.joining(", ", "select ", ""))
+                + " from Comment c where c.product.id = :productId"
+                + (afterId != null ? " and c.id > :id" : "")
+                + " order by c.id";
+
+        // Served by idx_comments_product_id (product_id, id), like the entity queries
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("productId", productId);
+        if (afterId != null) {
+            query.setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit.max()).getResultList();
+    }
+
+    private static String column(String property) {
+        String column = COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Not a selectable comment property: " + property);
+        }
+        return column;
+    }
+}
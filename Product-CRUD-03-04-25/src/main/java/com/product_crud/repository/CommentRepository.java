@@ -1,7 +1,37 @@
 package com.product_crud.repository;
 
 import com.product_crud.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentProjectionRepository {
+    // Both queries are served by idx_comments_product_id (product_id, id)
+    List<Comment> findByProductIdOrderByIdAsc(Long productId, Limit limit);
+
+    List<Comment> findByProductIdAndIdGreaterThanOrderByIdAsc(Long productId, Long id, Limit limit);
+
+    @Query("select c.product.id from Comment c where c.id = :id")
+    Optional<Long> findProductIdById(@Param("id") Long id);
+
+    @Query("select count(c) as count, max(c.createdAt) as lastCommentAt from Comment c where c.product.id = :productId")
+    CommentSummary findSummaryByProductId(@Param("productId") Long productId);
+
+    @Query("select distinct c.product.id from Comment c where c.id in :ids")
+    List<Long> findProductIdsByIds(@Param("ids") Collection<Long> ids);
+
+    // Set-based deletes: one statement, no entities loaded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Comment c where c.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Comment c where c.product.id in :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
 }
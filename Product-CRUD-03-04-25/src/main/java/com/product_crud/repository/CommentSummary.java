@@ -0,0 +1,9 @@
+package com.product_crud.repository;
+
+import java.time.Instant;
+
+// Comment count and newest comment time of one product, as stored in its comment summary columns
+public interface CommentSummary {
+    long getCount();
+    Instant getLastCommentAt();
+}
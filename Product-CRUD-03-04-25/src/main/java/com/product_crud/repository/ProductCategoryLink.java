@@ -0,0 +1,7 @@
+package com.product_crud.repository;
+
+// One row of the product_categories join table
+public interface ProductCategoryLink {
+    Long getProductId();
+    Long getCategoryId();
+}
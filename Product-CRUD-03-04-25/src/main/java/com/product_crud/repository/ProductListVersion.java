@@ -0,0 +1,8 @@
+package com.product_crud.repository;
+
+// Changes whenever a product is created (count, maxId), deleted (count) or updated (versionSum)
+public interface ProductListVersion {
+    long getCount();
+    long getMaxId();
+    long getVersionSum();
+}
@@ -0,0 +1,22 @@
+package com.product_crud.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+
+// Sparse-fieldset variants of the product list queries: only the given ProductDto properties are selected,
+// each aliased by its property name. The id is always selected
+public interface ProductProjectionRepository {
+    List<Tuple> findAllProjected(Collection<String> properties);
+
+    // Keyset page ordered by (sortProperty, id), or by id alone when sortProperty is null.
+    // afterId null means the first page
+    List<Tuple> findPageProjected(Collection<String> properties, String sortProperty,
+                                  Object afterValue, Long afterId, Limit limit);
+
+    // categoryIds null or empty means no category filter
+    List<Tuple> findPageByPriceRangeProjected(Collection<String> properties, double minPrice, double maxPrice,
+                                              Collection<Long> categoryIds, Long after, Limit limit);
+}
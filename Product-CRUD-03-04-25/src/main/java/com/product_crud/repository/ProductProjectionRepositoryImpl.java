@@ -0,0 +1,100 @@
+package com.product_crud.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+    // Selectable properties and their paths; anything else is rejected rather than concatenated into JPQL
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "price", "p.price",
+            "description", "p.description",
+            "version", "p.version",
+            "commentCount", "p.commentCount",
+            "lastCommentAt", "p.lastCommentAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findAllProjected(Collection<String> properties) {
+        return entityManager.createQuery(select(properties) + " from Product p", Tuple.class).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findPageProjected(Collection<String> properties, String sortProperty,
+                                         Object afterValue, Long afterId, Limit limit) {
+        StringBuilder jpql = new StringBuilder(select(properties)).append(" from Product p");
+        if (sortProperty == null) {
+            if (afterId != null) {
+                jpql.append(" where p.id > :id");
+            }
+            jpql.append(" order by p.id");
+        } else {
+            String sortColumn = column(sortProperty);
+            if (afterId != null) {
+                jpql.append(" where ").append(sortColumn).append(" > :value or (")
+                        .append(sortColumn).append(" = :value and p.id > :id)");
+            }
+            jpql.append(" order by ").append(sortColumn).append(", p.id");
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (afterId != null) {
+            query.setParameter("id", afterId);
+            if (sortProperty != null) {
+                query.setParameter("value", afterValue);
+            }
+        }
+        return query.setMaxResults(limit.max()).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findPageByPriceRangeProjected(Collection<String> properties, double minPrice, double maxPrice,
+                                                     Collection<Long> categoryIds, Long after, Limit limit) {
+        boolean byCategory = categoryIds != null && !categoryIds.isEmpty();
+        String jpql = select(properties) + " from Product p"
+                + " where p.price between :minPrice and :maxPrice and p.id > :after"
+                + (byCategory
+                        ? " and p.id in (select p2.id from Product p2 join p2.categories c where c.id in :categoryIds)"
+                        : "")
+                + " order by p.id";
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("minPrice", minPrice)
+                .setParameter("maxPrice", maxPrice)
+                .setParameter("after", after);
+        if (byCategory) {
+            query.setParameter("categoryIds", categoryIds);
+        }
+        return query.setMaxResults(limit.max()).getResultList();
+    }
+
+    private static String select(Collection<String> properties) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        selected.addAll(properties);
+        return selected.stream()
+                .map(property -> column(property) + " as " + property)
+                .collect(Collectors.joining(", ", "select ", ""));
+    }
+
+    private static String column(String property) {
+        String column = COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Not a selectable product property: " + property);
+        }
+        return column;
+    }
+}
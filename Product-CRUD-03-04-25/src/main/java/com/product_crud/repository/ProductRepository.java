@@ -1,7 +1,144 @@
 package com.product_crud.repository;
 
 import com.product_crud.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductProjectionRepository {
+    // Query-cached finders: results are reused until the next write to products (or product_categories),
+    // and expire with default-query-results-region. Never call them in a read-only transaction: that runs on
+    // the replica, and a lagging replica would cache a result from before the latest write
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select count(p) as count, coalesce(max(p.id), 0) as maxId, coalesce(sum(p.version), 0) as versionSum from Product p")
+    ProductListVersion findListVersion();
+
+    // Keyset pagination: first page, then "seek" past the last (sort key, id) of the previous page
+    List<Product> findBy(Sort sort, Limit limit);
+
+    @Query("select p from Product p where p.id > :id order by p.id")
+    List<Product> findPageAfterId(@Param("id") Long id, Limit limit);
+
+    @Query("select p from Product p where p.price > :price or (p.price = :price and p.id > :id) order by p.price, p.id")
+    List<Product> findPageAfterPrice(@Param("price") double price, @Param("id") Long id, Limit limit);
+
+    @Query("select p from Product p where p.name > :name or (p.name = :name and p.id > :id) order by p.name, p.id")
+    List<Product> findPageAfterName(@Param("name") String name, @Param("id") Long id, Limit limit);
+
+    // Faceted filtering: the price range uses idx_products_price_id, the category filter
+    // is a semi-join served by idx_product_categories_category_product
+    @Query("select p from Product p where p.price between :minPrice and :maxPrice and p.id > :after order by p.id")
+    List<Product> findPageByPriceRange(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                       @Param("after") Long after, Limit limit);
+
+    @Query("select p from Product p where p.price between :minPrice and :maxPrice and p.id > :after"
+            + " and p.id in (select p2.id from Product p2 join p2.categories c where c.id in :categoryIds)"
+            + " order by p.id")
+    List<Product> findPageByPriceRangeAndCategories(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                                    @Param("categoryIds") Collection<Long> categoryIds,
+                                                    @Param("after") Long after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select count(p) from Product p where p.price between :minPrice and :maxPrice")
+    long countByPriceRange(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select count(p) from Product p where p.price between :minPrice and :maxPrice"
+            + " and p.id in (select p2.id from Product p2 join p2.categories c where c.id in :categoryIds)")
+    long countByPriceRangeAndCategories(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                        @Param("categoryIds") Collection<Long> categoryIds);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select c.id as categoryId, count(p) as count from Product p join p.categories c"
+            + " where p.price between :minPrice and :maxPrice group by c.id order by c.id")
+    List<CategoryFacet> findCategoryFacets(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice);
+
+    // Must be consumed inside a transaction; rows are pulled from the driver in fetch-size chunks
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllBy();
+
+    // Category ids for a set of products, read from the join table without loading Category entities
+    @Query("select p.id as productId, c.id as categoryId from Product p join p.categories c where p.id in :ids")
+    List<ProductCategoryLink> findCategoryLinks(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id as productId, c.id as categoryId from Product p join p.categories c")
+    List<ProductCategoryLink> findAllCategoryLinks();
+
+    @Query("select p.id from Product p where p.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(p.id), 0) from Product p")
+    long findMaxId();
+
+    // The comment summary is changed on the managed product under this row lock: concurrent comments queue
+    // instead of losing updates, and Hibernate bumps the version (part of the ETag) and refreshes only
+    // this product's cache entry. Ids are locked in ascending order so batches cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findForUpdateById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids order by p.id")
+    List<Product> findAllForUpdateByIds(@Param("ids") Collection<Long> ids);
+
+    // Native writes name the tables they change, so Hibernate evicts only the cache regions and query
+    // results over those tables instead of every region. Used for bulk deletes and the nightly repair
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "products"))
+    @Query(value = "update products p set"
+            + " comment_count = (select count(*) from comments c where c.product_id = p.id),"
+            + " last_comment_at = (select max(c.created_at) from comments c where c.product_id = p.id),"
+            + " version = version + 1"
+            + " where p.id in (:ids)", nativeQuery = true)
+    int recountComments(@Param("ids") Collection<Long> ids);
+
+    // Same recount for an id range, touching only rows that drifted
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "products"))
+    @Query(value = "update products p set"
+            + " comment_count = (select count(*) from comments c where c.product_id = p.id),"
+            + " last_comment_at = (select max(c.created_at) from comments c where c.product_id = p.id),"
+            + " version = version + 1"
+            + " where p.id > :after and p.id <= :upTo"
+            + " and (comment_count <> (select count(*) from comments c where c.product_id = p.id)"
+            + " or coalesce(last_comment_at, timestamp '1970-01-01 00:00:00')"
+            + " <> coalesce((select max(c.created_at) from comments c where c.product_id = p.id), timestamp '1970-01-01 00:00:00'))",
+            nativeQuery = true)
+    int reconcileCommentStats(@Param("after") long after, @Param("upTo") long upTo);
+
+    // Set-based deletes: one statement each, no entities loaded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "product_categories"))
+    @Query(value = "delete from product_categories where product_id in (:ids)", nativeQuery = true)
+    int deleteCategoryLinksByProductIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,527 @@
+package com.product_crud.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over product name and description, kept in primitive arrays.
+ * Each term maps to a posting list of product ids sorted ascending with their weighted term
+ * frequency, so query terms are combined by merging sorted arrays instead of through maps.
+ * All query terms must match, the last one as a prefix, and results are ranked by tf-idf with
+ * name matches weighted above description matches. The work per query is bounded: a prefix
+ * needs {@value #MIN_PREFIX_LENGTH} characters and expands to at most {@value #MAX_PREFIX_EXPANSIONS}
+ * terms, and only the first {@value #MAX_CANDIDATES} products (by id) of the rarest term are ranked.
+ * Not thread-safe; {@link ProductSearchIndex} guards it.
+ */
+public final class InvertedIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    static final int MIN_PREFIX_LENGTH = 3;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final int MAX_CANDIDATES = 10_000;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    public void put(long id, String name, String description) {
+        remove(id);
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(name).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new Postings()).add(id, frequency));
+        documentTerms.put(id, frequencies.keySet().toArray(String[]::new));
+    }
+
+    public void remove(long id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings posting = postings.get(term);
+            posting.remove(id);
+            if (posting.liveSize() == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        // A last term too short to narrow anything down only matches as a whole word
+        String last = terms.get(terms.size() - 1);
+        boolean prefixQuery = last.length() >= MIN_PREFIX_LENGTH;
+        List<Postings> exact = new ArrayList<>(terms.size());
+        for (String term : prefixQuery ? terms.subList(0, terms.size() - 1) : terms) {
+            Postings posting = postings.get(term);
+            if (posting == null) {
+                return List.of();
+            }
+            exact.add(posting);
+        }
+        exact.sort((left, right) -> Integer.compare(left.liveSize(), right.liveSize()));
+        List<Postings> expansions = prefixQuery ? expansions(last) : List.of();
+        if (prefixQuery && expansions.isEmpty()) {
+            return List.of();
+        }
+
+        // Candidates come from the rarest side, the exact terms then the prefix are probed for each of them
+        int expansionSize = 0;
+        for (Postings expansion : expansions) {
+            expansionSize += expansion.liveSize();
+        }
+        Hits hits;
+        int from;
+        if (exact.isEmpty() || (prefixQuery && expansionSize < exact.get(0).liveSize())) {
+            hits = prefix(expansions);
+            from = 0;
+        } else {
+            hits = Hits.of(exact.get(0), idf(exact.get(0)), MAX_CANDIDATES);
+            from = 1;
+        }
+        for (int i = from; i < exact.size() && hits.size > 0; i++) {
+            hits = hits.intersect(exact.get(i), idf(exact.get(i)));
+        }
+        if (from == 1 && prefixQuery && hits.size > 0) {
+            hits = hits.intersect(expansions, idfs(expansions));
+        }
+        return hits.top(limit);
+    }
+
+    // The first expansions in term order, so a completion sharing more of the word comes before a longer one
+    private List<Postings> expansions(String prefix) {
+        List<Postings> expansions = new ArrayList<>();
+        Iterator<Postings> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values().iterator();
+        while (range.hasNext() && expansions.size() < MAX_PREFIX_EXPANSIONS) {
+            expansions.add(range.next());
+        }
+        return expansions;
+    }
+
+    private Hits prefix(List<Postings> expansions) {
+        if (expansions.size() == 1) {
+            return Hits.of(expansions.get(0), idf(expansions.get(0)), MAX_CANDIDATES);
+        }
+        return new PrefixMerge(expansions, idfs(expansions)).merge();
+    }
+
+    private double[] idfs(List<Postings> expansions) {
+        double[] idfs = new double[expansions.size()];
+        for (int i = 0; i < idfs.length; i++) {
+            idfs[i] = idf(expansions.get(i));
+        }
+        return idfs;
+    }
+
+    private double idf(Postings posting) {
+        return Math.log(1 + (double) documentTerms.size() / posting.liveSize());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    // Product ids ascending with their weighted frequency, laid out so no update shifts a long list.
+    // Removes leave a tombstone (frequency 0) that is revived if the term comes back; ids that are not
+    // the highest go to a short sorted pending list, merged in once it reaches a sixteenth of the list
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private int[] frequencies = new int[2];
+        private int size;
+        private int deleted;
+        private long[] pendingIds = new long[0];
+        private int[] pendingFrequencies = new int[0];
+        private int pendingSize;
+
+        int liveSize() {
+            return size - deleted + pendingSize;
+        }
+
+        void add(long id, int frequency) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                if (frequencies[position] == 0) {
+                    deleted--;
+                }
+                frequencies[position] = frequency;
+                return;
+            }
+            if (pendingSize == 0 && -position - 1 == size) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    frequencies = Arrays.copyOf(frequencies, size * 2);
+                }
+                ids[size] = id;
+                frequencies[size++] = frequency;
+                return;
+            }
+
+            int pending = Arrays.binarySearch(pendingIds, 0, pendingSize, id);
+            if (pending >= 0) {
+                pendingFrequencies[pending] = frequency;
+                return;
+            }
+            int insertAt = -pending - 1;
+            if (pendingSize == pendingIds.length) {
+                pendingIds = Arrays.copyOf(pendingIds, Math.max(8, pendingSize * 2));
+                pendingFrequencies = Arrays.copyOf(pendingFrequencies, pendingIds.length);
+            }
+            System.arraycopy(pendingIds, insertAt, pendingIds, insertAt + 1, pendingSize - insertAt);
+            System.arraycopy(pendingFrequencies, insertAt, pendingFrequencies, insertAt + 1, pendingSize - insertAt);
+            pendingIds[insertAt] = id;
+            pendingFrequencies[insertAt] = frequency;
+            if (++pendingSize > Math.max(16, size >> 4)) {
+                compact();
+            }
+        }
+
+        // 0 when absent or removed. Ids are asked in ascending order: the search gallops forward from the
+        // previous position, kept in cursors[slot], so dense probes stay close together in the array
+        int frequencyOf(long id, int[] cursors, int slot) {
+            int from = cursors[slot];
+            int bound = 1;
+            while (from + bound < size && ids[from + bound] < id) {
+                from += bound;
+                bound <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, from, Math.min(size, from + bound + 1), id);
+            cursors[slot] = position >= 0 ? position : -position - 1;
+            if (position >= 0) {
+                return frequencies[position];
+            }
+            if (pendingSize == 0) {
+                return 0;
+            }
+            int pending = Arrays.binarySearch(pendingIds, 0, pendingSize, id);
+            return pending >= 0 ? pendingFrequencies[pending] : 0;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                if (frequencies[position] != 0) {
+                    frequencies[position] = 0;
+                    if (++deleted > size >> 1) {
+                        compact();
+                    }
+                }
+                return;
+            }
+            int pending = Arrays.binarySearch(pendingIds, 0, pendingSize, id);
+            if (pending >= 0) {
+                System.arraycopy(pendingIds, pending + 1, pendingIds, pending, pendingSize - pending - 1);
+                System.arraycopy(pendingFrequencies, pending + 1, pendingFrequencies, pending, pendingSize - pending - 1);
+                pendingSize--;
+            }
+        }
+
+        // Live entries of both lists merged in id order, as many as the given arrays hold
+        int copyLive(long[] toIds, int[] toFrequencies) {
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (n < toIds.length && (i < size || j < pendingSize)) {
+                if (j == pendingSize || (i < size && ids[i] < pendingIds[j])) {
+                    if (frequencies[i] != 0) {
+                        toIds[n] = ids[i];
+                        toFrequencies[n++] = frequencies[i];
+                    }
+                    i++;
+                } else {
+                    toIds[n] = pendingIds[j];
+                    toFrequencies[n++] = pendingFrequencies[j++];
+                }
+            }
+            return n;
+        }
+
+        private void compact() {
+            int live = liveSize();
+            long[] compactIds = new long[Math.max(2, live + (live >> 2))];
+            int[] compactFrequencies = new int[compactIds.length];
+            size = copyLive(compactIds, compactFrequencies);
+            ids = compactIds;
+            frequencies = compactFrequencies;
+            deleted = 0;
+            pendingSize = 0;
+        }
+    }
+
+    // Per-query scores as parallel arrays sorted by product id
+    private static final class Hits {
+        static final Hits EMPTY = new Hits(new long[0], new double[0], 0);
+
+        final long[] ids;
+        final double[] scores;
+        final int size;
+
+        Hits(long[] ids, double[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        // The lowest `max` ids of the postings
+        static Hits of(Postings posting, double idf, int max) {
+            if (posting.deleted == 0 && posting.pendingSize == 0) {
+                int size = Math.min(posting.size, max);
+                double[] scores = new double[size];
+                for (int i = 0; i < size; i++) {
+                    scores[i] = posting.frequencies[i] * idf;
+                }
+                // Shares the id array: postings only change under the write lock, after the query is done
+                return new Hits(posting.ids, scores, size);
+            }
+            long[] ids = new long[Math.min(posting.liveSize(), max)];
+            int[] frequencies = new int[ids.length];
+            int size = posting.copyLive(ids, frequencies);
+            double[] scores = new double[size];
+            for (int i = 0; i < size; i++) {
+                scores[i] = frequencies[i] * idf;
+            }
+            return new Hits(ids, scores, size);
+        }
+
+        // Probes the postings for each hit, unless the postings are the shorter side
+        Hits intersect(Postings posting, double idf) {
+            if (posting.liveSize() < size) {
+                return intersect(of(posting, idf, Integer.MAX_VALUE));
+            }
+            long[] resultIds = new long[size];
+            double[] resultScores = new double[size];
+            int[] cursors = new int[1];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int frequency = posting.frequencyOf(ids[i], cursors, 0);
+                if (frequency > 0) {
+                    resultIds[n] = ids[i];
+                    resultScores[n++] = scores[i] + frequency * idf;
+                }
+            }
+            return new Hits(resultIds, resultScores, n);
+        }
+
+        // Walks the smaller list and binary searches forward in the larger one
+        Hits intersect(Hits other) {
+            Hits smaller = size <= other.size ? this : other;
+            Hits larger = smaller == this ? other : this;
+            long[] resultIds = new long[smaller.size];
+            double[] resultScores = new double[smaller.size];
+            int n = 0;
+            int from = 0;
+            for (int i = 0; i < smaller.size && from < larger.size; i++) {
+                int position = Arrays.binarySearch(larger.ids, from, larger.size, smaller.ids[i]);
+                if (position >= 0) {
+                    resultIds[n] = smaller.ids[i];
+                    resultScores[n++] = smaller.scores[i] + larger.scores[position];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return new Hits(resultIds, resultScores, n);
+        }
+
+        // Keeps the hits found under any expansion of the prefix, each adding its own weight
+        Hits intersect(List<Postings> expansions, double[] idfs) {
+            long[] resultIds = new long[size];
+            double[] resultScores = new double[size];
+            int[] cursors = new int[idfs.length];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                double score = 0;
+                for (int e = 0; e < idfs.length; e++) {
+                    score += expansions.get(e).frequencyOf(ids[i], cursors, e) * idfs[e];
+                }
+                if (score > 0) {
+                    resultIds[n] = ids[i];
+                    resultScores[n++] = scores[i] + score;
+                }
+            }
+            return new Hits(resultIds, resultScores, n);
+        }
+
+        // Bounded min-heap of positions keeps the worst of the current top results at its root
+        List<Long> top(int limit) {
+            int[] heap = new int[Math.min(limit, size)];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < heap.length) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (heapSize > 0 && ranksAbove(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            Long[] ranked = new Long[heapSize];
+            for (int n = heapSize - 1; n >= 0; n--) {
+                ranked[n] = ids[heap[0]];
+                heap[0] = heap[n];
+                siftDown(heap, n);
+            }
+            return Arrays.asList(ranked);
+        }
+
+        // Higher score first, lower id on ties
+        private boolean ranksAbove(int left, int right) {
+            return scores[left] != scores[right] ? scores[left] > scores[right] : ids[left] < ids[right];
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!ranksAbove(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && ranksAbove(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && ranksAbove(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int swapped = heap[i];
+            heap[i] = heap[j];
+            heap[j] = swapped;
+        }
+    }
+
+    // Every expansion of a prefix counts, each with its own idf. The lowest ids of each expansion are copied
+    // one after the other as sorted runs and merged pairwise between two buffers, a bottom-up merge sort in
+    // O(n log k) that reads memory sequentially; ids found under several expansions are summed at the end.
+    // The lowest MAX_CANDIDATES ids of the union can only come from the lowest MAX_CANDIDATES of each run
+    private static final class PrefixMerge {
+        private long[] ids;
+        private double[] scores;
+        private long[] idBuffer;
+        private double[] scoreBuffer;
+        private int[] runEnds;
+        private int runs;
+
+        PrefixMerge(List<Postings> expansions, double[] idfs) {
+            int total = 0;
+            for (Postings posting : expansions) {
+                total += Math.min(posting.liveSize(), MAX_CANDIDATES);
+            }
+            ids = new long[total];
+            scores = new double[total];
+            runEnds = new int[expansions.size()];
+
+            long[] liveIds = new long[0];
+            int[] liveFrequencies = new int[0];
+            int n = 0;
+            for (int e = 0; e < expansions.size(); e++) {
+                Postings posting = expansions.get(e);
+                if (liveIds.length < Math.min(posting.liveSize(), MAX_CANDIDATES)) {
+                    liveIds = new long[Math.min(posting.liveSize(), MAX_CANDIDATES)];
+                    liveFrequencies = new int[liveIds.length];
+                }
+                int size = posting.copyLive(liveIds, liveFrequencies);
+                System.arraycopy(liveIds, 0, ids, n, size);
+                for (int i = 0; i < size; i++) {
+                    scores[n + i] = liveFrequencies[i] * idfs[e];
+                }
+                n += size;
+                runEnds[runs++] = n;
+            }
+        }
+
+        Hits merge() {
+            idBuffer = new long[ids.length];
+            scoreBuffer = new double[ids.length];
+            while (runs > 1) {
+                int merged = 0;
+                int start = 0;
+                for (int run = 0; run < runs; run += 2) {
+                    int middle = runEnds[run];
+                    int end = run + 1 < runs ? runEnds[run + 1] : middle;
+                    mergeRuns(start, middle, end);
+                    runEnds[merged++] = end;
+                    start = end;
+                }
+                runs = merged;
+                long[] swappedIds = ids;
+                ids = idBuffer;
+                idBuffer = swappedIds;
+                double[] swappedScores = scores;
+                scores = scoreBuffer;
+                scoreBuffer = swappedScores;
+            }
+
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (n > 0 && ids[n - 1] == ids[i]) {
+                    scores[n - 1] += scores[i];
+                } else {
+                    ids[n] = ids[i];
+                    scores[n++] = scores[i];
+                }
+            }
+            return new Hits(ids, scores, Math.min(n, MAX_CANDIDATES));
+        }
+
+        // Merges ids[start, middle) and ids[middle, end) into the buffers at the same positions
+        private void mergeRuns(int start, int middle, int end) {
+            int i = start;
+            int j = middle;
+            int n = start;
+            while (i < middle && j < end) {
+                if (ids[i] <= ids[j]) {
+                    idBuffer[n] = ids[i];
+                    scoreBuffer[n++] = scores[i++];
+                } else {
+                    idBuffer[n] = ids[j];
+                    scoreBuffer[n++] = scores[j++];
+                }
+            }
+            System.arraycopy(ids, i, idBuffer, n, middle - i);
+            System.arraycopy(scores, i, scoreBuffer, n, middle - i);
+            n += middle - i;
+            System.arraycopy(ids, j, idBuffer, n, end - j);
+            System.arraycopy(scores, j, scoreBuffer, n, end - j);
+        }
+    }
+}
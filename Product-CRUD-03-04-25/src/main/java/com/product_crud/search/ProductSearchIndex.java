@@ -0,0 +1,131 @@
+package com.product_crud.search;
+
+import com.product_crud.entity.Product;
+import com.product_crud.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link InvertedIndex} in step with the products table.
+ * Readers share a read lock and single-product changes take the write lock briefly. A rebuild
+ * fills a fresh index without any lock, replays the changes committed meanwhile and then swaps
+ * it in, so searches and writes keep going against the old index for the whole table scan.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedIndex index = new InvertedIndex();
+    // Non-null while a rebuild runs; both fields are guarded by lock
+    private List<Consumer<InvertedIndex>> changesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedIndex rebuilt = new InvertedIndex();
+        try {
+            try (Stream<Product> products = productRepository.streamAllBy()) {
+                for (Iterator<Product> iterator = products.iterator(); iterator.hasNext(); ) {
+                    Product product = iterator.next();
+                    rebuilt.put(product.getId(), product.getName(), product.getDescription());
+                    if (rebuilt.size() % REBUILD_CHUNK_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replayed in commit order; each one is the latest state of its product, so re-applying is harmless
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} products for search in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Index and remove are applied after commit so a rolled back write never reaches the index
+    public void index(Long id, String name, String description) {
+        afterCommit(() -> apply(current -> current.put(id, name, description)));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> apply(current -> current.remove(id)));
+    }
+
+    public List<Long> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.product_crud.service;
 
 import com.product_crud.payload.CategoryDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface CategoryService {
     List<CategoryDto> getAllCategories();
@@ -10,4 +12,6 @@ public interface CategoryService {
     CategoryDto getCategoryById(Long id);
     CategoryDto updateCategory(Long id, CategoryDto categoryDto);
     void deleteCategory(Long id);
+    int deleteCategories(List<Long> ids);
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
@@ -1,11 +1,17 @@
 package com.product_crud.service;
 
 import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CommentField;
+import com.product_crud.payload.CursorPageDto;
+
 import java.util.List;
+import java.util.Set;
 
 public interface CommentService {
     CommentDto addCommentToProduct(Long productId, CommentDto commentDto);
-    List<CommentDto> getCommentsByProduct(Long productId);
+    CursorPageDto<CommentDto> getCommentsByProduct(Long productId, Long after, int limit);
+    CursorPageDto<CommentDto> getCommentsByProduct(Long productId, Long after, int limit, Set<CommentField> fields);
     void deleteComment(Long id);
+    int deleteComments(List<Long> ids);
 }
 
@@ -1,12 +1,40 @@
 package com.product_crud.service;
 
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.BulkUpdateResultDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ExportFormat;
+import com.product_crud.payload.FacetedProductPageDto;
+import com.product_crud.payload.PriceUpdateDto;
 import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductField;
+import com.product_crud.payload.ProductPatchDto;
+import com.product_crud.payload.ProductSort;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
 
 public interface ProductService {
     ProductDto createProduct(ProductDto productDto);
+    BulkImportReportDto importProducts(List<ProductDto> productDtos);
     ProductDto getProductById(Long id);
+    ProductDto getProductById(Long id, Set<ProductField> fields);
+    Long getProductVersion(Long id);
+    String getProductListVersion();
     List<ProductDto> getAllProducts();
-    ProductDto updateProduct(Long id, ProductDto productDto);
+    List<ProductDto> getAllProducts(Set<ProductField> fields);
+    CursorPageDto<ProductDto> getProductsPage(String after, int limit, ProductSort sort);
+    CursorPageDto<ProductDto> getProductsPage(String after, int limit, ProductSort sort, Set<ProductField> fields);
+    List<ProductDto> searchProducts(String query, int limit);
+    FacetedProductPageDto filterProducts(List<Long> categoryIds, Double minPrice, Double maxPrice, Long after, int limit);
+    FacetedProductPageDto filterProducts(List<Long> categoryIds, Double minPrice, Double maxPrice, Long after, int limit,
+                                         Set<ProductField> fields);
+    ProductDto updateProduct(Long id, ProductDto productDto, Long expectedVersion);
+    ProductDto patchProduct(Long id, ProductPatchDto patch, Long expectedVersion);
+    BulkUpdateResultDto updatePrices(List<PriceUpdateDto> prices);
     void deleteProduct(Long id);
+    int deleteProducts(List<Long> ids);
+    void exportProducts(ExportFormat format, OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -1,68 +1,133 @@
 package com.product_crud.service.impl;
 
+import com.product_crud.config.CacheConfig;
 import com.product_crud.entity.Category;
+import com.product_crud.exception.BadRequestException;
 import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.mapper.CategoryMapper;
 import com.product_crud.payload.CategoryDto;
 import com.product_crud.repository.CategoryRepository;
 import com.product_crud.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
+    private static final int MAX_BULK_DELETE = 1000;
+
     private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
+    private final CategoryMapper categoryMapper;
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_LIST, key = "'all'")
     public List<CategoryDto> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+                .map(categoryMapper::toDto)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.CATEGORIES, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true))
     public CategoryDto createCategory(CategoryDto categoryDto) {
         Category category = Category.builder()
                 .name(categoryDto.getName())
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
-        return mapToDto(savedCategory);
+        return categoryMapper.toDto(savedCategory);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     public CategoryDto getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-        return mapToDto(category);
+        return categoryMapper.toDto(category);
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true))
     public CategoryDto updateCategory(Long id, CategoryDto categoryDto) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
         category.setName(categoryDto.getName());
 
-        return mapToDto(categoryRepository.save(category));
+        return categoryMapper.toDto(categoryRepository.save(category));
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true)})
+    @Transactional
     public void deleteCategory(Long id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-        categoryRepository.delete(category);
+        if (categoryRepository.deleteByIds(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Category not found");
+        }
     }
 
-    private CategoryDto mapToDto(Category category) {
-        return CategoryDto.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .build();
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true)
+    public int deleteCategories(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_DELETE) {
+            throw new BadRequestException("ids must contain between 1 and " + MAX_BULK_DELETE + " ids");
+        }
+        int deleted = categoryRepository.deleteByIds(ids);
+        Cache cache = cacheManager.getCache(CacheConfig.CATEGORIES);
+        ids.forEach(cache::evict);
+        return deleted;
     }
-}
 
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        // Served from the categories cache; only ids not cached yet go to the database
+        Cache cache = cacheManager.getCache(CacheConfig.CATEGORIES);
+        Set<Long> existingIds = new HashSet<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            if (cache.get(id) != null) {
+                existingIds.add(id);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Category category : categoryRepository.findAllById(misses)) {
+                cache.put(category.getId(), categoryMapper.toDto(category));
+                existingIds.add(category.getId());
+            }
+        }
+        return existingIds;
+    }
+}
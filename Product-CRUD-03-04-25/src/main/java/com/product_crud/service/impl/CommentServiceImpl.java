@@ -2,30 +2,56 @@ package com.product_crud.service.impl;
 
 import com.product_crud.entity.Comment;
 import com.product_crud.entity.Product;
+import com.product_crud.exception.BadRequestException;
+import com.product_crud.exception.ResourceNotFoundException;
 import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CommentField;
+import com.product_crud.payload.CursorPageDto;
 import com.product_crud.repository.CommentRepository;
+import com.product_crud.repository.CommentSummary;
 import com.product_crud.repository.ProductRepository;
 import com.product_crud.service.CommentService;
 
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_DELETE = 1000;
+
     private final CommentRepository commentRepository;
     private final ProductRepository productRepository;
 
     @Override
+    @Transactional
     public CommentDto addCommentToProduct(Long productId, CommentDto commentDto) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found!"));
+        // The row lock doubles as the existence check. An atomic "comment_count = comment_count + 1" UPDATE
+        // would not do: it cannot set the entity's fields, so Hibernate would drop the whole products cache
+        // region on every comment. It would also run unordered with deleteComment's recount. Every comment
+        // write takes this lock first, before it touches the comments table
+        Product product = productRepository.findForUpdateById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        Instant now = Instant.now();
+        product.setCommentCount(product.getCommentCount() + 1);
+        product.setLastCommentAt(now);
 
         Comment comment = new Comment();
         comment.setContent(commentDto.getContent());
+        comment.setCreatedAt(now);
         comment.setProduct(product);
 
         Comment savedComment = commentRepository.save(comment);
@@ -33,28 +59,87 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<CommentDto> getCommentsByProduct(Long productId) {
-        List<CommentDto> comments = commentRepository.findAll()
-                .stream()
-                .filter(comment -> comment.getProduct().getId().equals(productId))
-                .map(this::mapToDto)
-                        .collect(Collectors.toList());
-        
-                if (comments.isEmpty()) {
-                    throw new RuntimeException("No comments found for product with id: " + productId);
-                }
-        
-                return comments;
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommentDto> getCommentsByProduct(Long productId, Long after, int limit) {
+        return getCommentsByProduct(productId, after, limit, EnumSet.allOf(CommentField.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommentDto> getCommentsByProduct(Long productId, Long after, int limit,
+                                                          Set<CommentField> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(limit + 1);
+        List<CommentDto> comments;
+        if (CommentField.isAll(fields)) {
+            comments = (after == null
+                    ? commentRepository.findByProductIdOrderByIdAsc(productId, fetch)
+                    : commentRepository.findByProductIdAndIdGreaterThanOrderByIdAsc(productId, after, fetch))
+                    .stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toList());
+        } else {
+            List<String> columns = fields.stream().map(CommentField::getProperty).collect(Collectors.toList());
+            comments = commentRepository.findPageProjected(columns, productId, after, fetch).stream()
+                    .map(row -> mapToDto(row, fields))
+                    .collect(Collectors.toList());
+        }
+
+        // An empty first page is only an error when the product itself is missing
+        if (comments.isEmpty() && after == null && !productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+
+        boolean hasNext = comments.size() > limit;
+        List<CommentDto> page = hasNext ? comments.subList(0, limit) : comments;
+
+        return CursorPageDto.<CommentDto>builder()
+                .content(page)
+                .limit(limit)
+                .nextCursor(hasNext ? String.valueOf(page.get(page.size() - 1).getId()) : null)
+                .build();
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long id) {
-        Comment comment = commentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
-        if (comment.getProduct() != null) {
-            comment.getProduct().getComments().remove(comment);
+        Long productId = commentRepository.findProductIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
+        // Locked before the comment is deleted, in the same order as addCommentToProduct, so the two cannot deadlock
+        productRepository.findForUpdateById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        if (commentRepository.deleteByIds(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Comment not found with id: " + id);
         }
-        commentRepository.delete(comment);
+        // The delete cleared the persistence context, so the product is read again under the lock already held.
+        // Recounted rather than decremented, so last_comment_at moves back when the newest comment goes
+        Product product = productRepository.findForUpdateById(productId).orElseThrow();
+        CommentSummary summary = commentRepository.findSummaryByProductId(productId);
+        product.setCommentCount(summary.getCount());
+        product.setLastCommentAt(summary.getLastCommentAt());
+    }
+
+    @Override
+    @Transactional
+    public int deleteComments(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_DELETE) {
+            throw new BadRequestException("ids must contain between 1 and " + MAX_BULK_DELETE + " ids");
+        }
+        List<Long> productIds = commentRepository.findProductIdsByIds(ids);
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        // Products are locked in ascending id order before their comments are deleted, like every other comment write
+        productRepository.findAllForUpdateByIds(productIds);
+        int deleted = commentRepository.deleteByIds(ids);
+        // One recount statement for every affected product instead of a decrement per comment.
+        // It drops the products cache region, which is fine for an occasional bulk delete
+        productRepository.recountComments(productIds);
+        return deleted;
     }
 
     private CommentDto mapToDto(Comment comment) {
@@ -64,5 +149,16 @@ public class CommentServiceImpl implements CommentService {
                 .productId(comment.getProduct().getId())
                 .build();
     }
+
+    private CommentDto mapToDto(Tuple row, Set<CommentField> fields) {
+        CommentDto.CommentDtoBuilder dto = CommentDto.builder().id(row.get("id", Long.class));
+        if (fields.contains(CommentField.CONTENT)) {
+            dto.content(row.get("content", String.class));
+        }
+        if (fields.contains(CommentField.PRODUCT_ID)) {
+            dto.productId(row.get("productId", Long.class));
+        }
+        return dto.build();
+    }
 }
 
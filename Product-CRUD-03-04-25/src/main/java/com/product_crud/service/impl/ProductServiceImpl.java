@@ -1,22 +1,85 @@
 package com.product_crud.service.impl;
 
 import com.product_crud.entity.*;
+import com.product_crud.exception.BadRequestException;
+import com.product_crud.exception.PreconditionFailedException;
 import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.mapper.ProductMapper;
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.BulkUpdateResultDto;
+import com.product_crud.payload.CategoryFacetDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ExportFormat;
+import com.product_crud.payload.PriceUpdateDto;
+import com.product_crud.payload.FacetedProductPageDto;
 import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductField;
+import com.product_crud.payload.ProductPatchDto;
+import com.product_crud.payload.ProductSort;
 import com.product_crud.repository.*;
+import com.product_crud.search.ProductSearchIndex;
+import com.product_crud.service.CategoryService;
 import com.product_crud.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_DELETE = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    // @DynamicUpdate turns off Hibernate's JDBC batching for Product updates, so bulk repricing prepares this
+    // statement itself and runs it in batches of product.batch-size on the session's connection
+    private static final String UPDATE_PRICE_SQL =
+            "update products set price = ?, version = version + 1 where id = ? and price <> ?";
+    private static final String[] PRODUCT_TABLES = {"products"};
+
     private final ProductRepository productRepository;
-    private final CategoryRepository categoryRepository;
+    private final CommentRepository commentRepository;
+    private final CategoryService categoryService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex searchIndex;
+    private final ProductMapper productMapper;
+
+    @Value("${product.batch-size:500}")
+    private int batchSize;
 
     @Override
     @Transactional
@@ -26,66 +89,485 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(productDto.getPrice());
         product.setDescription(productDto.getDescription());
 
-        List<Category> categories = categoryRepository.findAllById(productDto.getCategoryIds());
-        if (categories.isEmpty()) {
-            throw new ResourceNotFoundException("No valid categories found with the provided IDs");
-        }
-        product.getCategories().clear();
-        product.getCategories().addAll(categories);
+        product.getCategories().addAll(resolveCategories(productDto.getCategoryIds()));
 
         Product savedProduct = productRepository.save(product);
-        return mapToDto(savedProduct);
+        searchIndex.index(savedProduct.getId(), savedProduct.getName(), savedProduct.getDescription());
+        return productMapper.toDto(savedProduct);
+    }
+
+    @Override
+    @Transactional
+    public BulkImportReportDto importProducts(List<ProductDto> productDtos) {
+        // Resolve every referenced category once for the whole request
+        Set<Long> validCategoryIds = categoryService.findExistingIds(productDtos.stream()
+                .flatMap(dto -> dto.getCategoryIds().stream())
+                .collect(Collectors.toSet()));
+        for (int i = 0; i < productDtos.size(); i++) {
+            if (productDtos.get(i).getCategoryIds().stream().noneMatch(validCategoryIds::contains)) {
+                throw new ResourceNotFoundException(
+                        "No valid categories found with the provided IDs for product at index " + i);
+            }
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+
+        List<BulkImportReportDto.BatchReport> batches = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int from = 0; from < productDtos.size(); from += batchSize) {
+            long batchStart = System.nanoTime();
+            List<ProductDto> batch = productDtos.subList(from, Math.min(from + batchSize, productDtos.size()));
+            for (ProductDto dto : batch) {
+                Product product = Product.builder()
+                        .name(dto.getName())
+                        .price(dto.getPrice())
+                        .description(dto.getDescription())
+                        .categories(dto.getCategoryIds().stream()
+                                .filter(validCategoryIds::contains)
+                                .map(id -> entityManager.getReference(Category.class, id))
+                                .collect(Collectors.toSet()))
+                        .build();
+                entityManager.persist(product);
+                searchIndex.index(product.getId(), product.getName(), product.getDescription());
+            }
+            // Products and product_categories rows go out as JDBC batches; detach them before the next batch
+            entityManager.flush();
+            entityManager.clear();
+
+            long batchNanos = System.nanoTime() - batchStart;
+            batches.add(BulkImportReportDto.BatchReport.builder()
+                    .batch(batches.size() + 1)
+                    .rows(batch.size())
+                    .elapsedMillis(batchNanos / 1_000_000)
+                    .rowsPerSecond(rowsPerSecond(batch.size(), batchNanos))
+                    .build());
+        }
+
+        long totalNanos = System.nanoTime() - start;
+        return BulkImportReportDto.builder()
+                .imported(productDtos.size())
+                .batchSize(batchSize)
+                .elapsedMillis(totalNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond(productDtos.size(), totalNanos))
+                .batches(batches)
+                .build();
+    }
+
+    private double rowsPerSecond(int rows, long nanos) {
+        return nanos == 0 ? rows : rows * 1_000_000_000d / nanos;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductDto getProductById(Long id) {
+        return getProductById(id, EnumSet.allOf(ProductField.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductDto getProductById(Long id, Set<ProductField> fields) {
+        // Served from the products and product-categories cache regions once the product has been read.
+        // The row is cached whole, so fields only decides whether the categories are loaded
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToDto(product);
+        return fields.contains(ProductField.CATEGORY_IDS) ? productMapper.toDto(product) : productMapper.toDto(product, null);
     }
 
+    // Not read-only, so it runs on the primary: the result goes into the query cache, and a lagging replica
+    // would fill it with the version from before the latest write until the next one
     @Override
+    @Transactional
+    public Long getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+    }
+
+    // On the primary for the same reason as getProductVersion
+    @Override
+    @Transactional
+    public String getProductListVersion() {
+        ProductListVersion version = productRepository.findListVersion();
+        return version.getCount() + "-" + version.getMaxId() + "-" + version.getVersionSum();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getAllProducts() {
+        return getAllProducts(EnumSet.allOf(ProductField.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDto> getAllProducts(Set<ProductField> fields) {
+        // At most two queries: the products, then every product_categories row if categoryIds is wanted
+        Map<Long, List<Long>> categoryIds = fields.contains(ProductField.CATEGORY_IDS)
+                ? groupCategoryIds(productRepository.findAllCategoryLinks())
+                : null;
+        if (!ProductField.isAll(fields)) {
+            return productRepository.findAllProjected(columns(fields)).stream()
+                    .map(row -> productMapper.toDto(row, fields, categoryIds))
+                    .collect(Collectors.toList());
+        }
         return productRepository.findAll().stream()
-                .map(this::mapToDto)
+                .map(product -> productMapper.toDto(product, categoryIds.getOrDefault(product.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> getProductsPage(String after, int limit, ProductSort sort) {
+        return getProductsPage(after, limit, sort, EnumSet.allOf(ProductField.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> getProductsPage(String after, int limit, ProductSort sort,
+                                                     Set<ProductField> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(limit + 1);
+        if (!ProductField.isAll(fields)) {
+            return getProjectedPage(after, limit, sort, fields, fetch);
+        }
+        List<Product> products;
+        if (after == null || after.isBlank()) {
+            Sort order = sort == ProductSort.ID
+                    ? Sort.by("id")
+                    : Sort.by(sort.name().toLowerCase(), "id");
+            products = productRepository.findBy(order, fetch);
+        } else {
+            String[] cursor = decodeCursor(after, sort);
+            Long lastId = Long.valueOf(cursor[1]);
+            products = switch (sort) {
+                case ID -> productRepository.findPageAfterId(lastId, fetch);
+                case PRICE -> productRepository.findPageAfterPrice(Double.parseDouble(cursor[2]), lastId, fetch);
+                case NAME -> productRepository.findPageAfterName(cursor[2], lastId, fetch);
+            };
+        }
+
+        boolean hasNext = products.size() > limit;
+        List<Product> page = hasNext ? products.subList(0, limit) : products;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1), sort) : null;
+
+        return CursorPageDto.<ProductDto>builder()
+                .content(mapToDtos(page))
+                .limit(limit)
+                .nextCursor(nextCursor)
+                .contentVersion(pageVersion(limit, fields, nextCursor, page.stream()
+                        .map(product -> product.getId() + ":" + product.getVersion())))
+                .build();
+    }
+
+    // The sort column is always read because the next cursor carries it, and the version for the page's ETag
+    private CursorPageDto<ProductDto> getProjectedPage(String after, int limit, ProductSort sort,
+                                                       Set<ProductField> fields, Limit fetch) {
+        String sortProperty = switch (sort) {
+            case ID -> null;
+            case PRICE -> ProductField.PRICE.getProperty();
+            case NAME -> ProductField.NAME.getProperty();
+        };
+        List<String> columns = columns(fields);
+        if (sortProperty != null && !columns.contains(sortProperty)) {
+            columns.add(sortProperty);
+        }
+        if (!fields.contains(ProductField.VERSION)) {
+            columns.add(ProductField.VERSION.getProperty());
+        }
+
+        List<Tuple> rows;
+        if (after == null || after.isBlank()) {
+            rows = productRepository.findPageProjected(columns, sortProperty, null, null, fetch);
+        } else {
+            String[] cursor = decodeCursor(after, sort);
+            Object afterValue = sort == ProductSort.PRICE ? (Object) Double.parseDouble(cursor[2]) : cursor[2];
+            rows = productRepository.findPageProjected(columns, sortProperty, afterValue, Long.valueOf(cursor[1]), fetch);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<Tuple> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = page.get(page.size() - 1);
+            String value = sortProperty == null ? "" : String.valueOf(last.get(sortProperty));
+            nextCursor = encodeCursor(last.get("id", Long.class), value, sort);
+        }
+
+        return CursorPageDto.<ProductDto>builder()
+                .content(mapRowsToDtos(page, fields))
+                .limit(limit)
+                .nextCursor(nextCursor)
+                .contentVersion(pageVersion(limit, fields, nextCursor, page.stream()
+                        .map(row -> row.get("id", Long.class) + ":" + row.get("version", Long.class))))
+                .build();
+    }
+
+    // Every write to a product bumps its version, so the rows' ids and versions plus what shapes the
+    // response identify the page without reading anything beyond it
+    private String pageVersion(int limit, Set<ProductField> fields, String nextCursor, Stream<String> rowVersions) {
+        String page = limit + "|" + fields.stream().sorted().map(ProductField::name).collect(Collectors.joining(","))
+                + "|" + nextCursor + "|" + rowVersions.collect(Collectors.joining(","));
+        return DigestUtils.md5DigestAsHex(page.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDto> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Long> rankedIds = searchIndex.search(query, limit);
+        Map<Long, ProductDto> products = mapToDtos(productRepository.findAllById(rankedIds)).stream()
+                .collect(Collectors.toMap(ProductDto::getId, dto -> dto));
+        return rankedIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // On the primary: the first page's count and facets go into the query cache, see getProductVersion
+    @Override
+    @Transactional
+    public FacetedProductPageDto filterProducts(List<Long> categoryIds, Double minPrice, Double maxPrice,
+                                                Long after, int limit) {
+        return filterProducts(categoryIds, minPrice, maxPrice, after, limit, EnumSet.allOf(ProductField.class));
+    }
+
+    @Override
+    @Transactional
+    public FacetedProductPageDto filterProducts(List<Long> categoryIds, Double minPrice, Double maxPrice,
+                                                Long after, int limit, Set<ProductField> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Open bounds become the widest range so the filter is always a plain range scan
+        double min = minPrice == null ? -Double.MAX_VALUE : minPrice;
+        double max = maxPrice == null ? Double.MAX_VALUE : maxPrice;
+        if (min > max) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        long lastId = after == null ? 0L : after;
+        boolean byCategory = categoryIds != null && !categoryIds.isEmpty();
+
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(limit + 1);
+        List<ProductDto> content;
+        boolean hasNext;
+        if (ProductField.isAll(fields)) {
+            List<Product> products = byCategory
+                    ? productRepository.findPageByPriceRangeAndCategories(min, max, categoryIds, lastId, fetch)
+                    : productRepository.findPageByPriceRange(min, max, lastId, fetch);
+            hasNext = products.size() > limit;
+            content = mapToDtos(hasNext ? products.subList(0, limit) : products);
+        } else {
+            List<Tuple> rows = productRepository.findPageByPriceRangeProjected(
+                    columns(fields), min, max, categoryIds, lastId, fetch);
+            hasNext = rows.size() > limit;
+            content = mapRowsToDtos(hasNext ? rows.subList(0, limit) : rows, fields);
+        }
+
+        FacetedProductPageDto.FacetedProductPageDtoBuilder page = FacetedProductPageDto.builder()
+                .content(content)
+                .limit(limit)
+                .nextCursor(hasNext ? String.valueOf(content.get(content.size() - 1).getId()) : null);
+        // The count and the facet GROUP BY do not depend on the cursor; only the first page pays for them
+        if (after == null) {
+            page.total(byCategory
+                            ? productRepository.countByPriceRangeAndCategories(min, max, categoryIds)
+                            : productRepository.countByPriceRange(min, max))
+                    .categoryFacets(productRepository.findCategoryFacets(min, max).stream()
+                            .map(facet -> CategoryFacetDto.builder()
+                                    .categoryId(facet.getCategoryId())
+                                    .count(facet.getCount())
+                                    .build())
+                            .collect(Collectors.toList()));
+        }
+        return page.build();
+    }
+
     @Override
     @Transactional
-    public ProductDto updateProduct(Long id, ProductDto productDto) {
+    public ProductDto updateProduct(Long id, ProductDto productDto, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new PreconditionFailedException("Product with id: " + id + " has been modified");
+        }
 
         product.setName(productDto.getName());
         product.setPrice(productDto.getPrice());
         product.setDescription(productDto.getDescription());
+        updateCategories(product, productDto.getCategoryIds());
 
-        // Update categories
-        List<Category> categories = categoryRepository.findAllById(productDto.getCategoryIds());
-        if (categories.isEmpty()) {
-            throw new ResourceNotFoundException("No valid categories found with the provided IDs");
+        // Flush so the returned version (and ETag) reflects this update
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        searchIndex.index(updatedProduct.getId(), updatedProduct.getName(), updatedProduct.getDescription());
+        return productMapper.toDto(updatedProduct);
+    }
+
+    @Override
+    @Transactional
+    public ProductDto patchProduct(Long id, ProductPatchDto patch, Long expectedVersion) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new PreconditionFailedException("Product with id: " + id + " has been modified");
+        }
+
+        // Only fields present in the patch are set; @DynamicUpdate limits the UPDATE to changed columns
+        if (patch.getName() != null) {
+            product.setName(patch.getName());
+        }
+        if (patch.getPrice() != null) {
+            product.setPrice(patch.getPrice());
+        }
+        if (patch.getDescription() != null) {
+            product.setDescription(patch.getDescription());
+        }
+        if (patch.getCategoryIds() != null) {
+            updateCategories(product, patch.getCategoryIds());
+        }
+
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        if (patch.getName() != null || patch.getDescription() != null) {
+            searchIndex.index(updatedProduct.getId(), updatedProduct.getName(), updatedProduct.getDescription());
+        }
+        return productMapper.toDto(updatedProduct);
+    }
+
+    @Override
+    @Transactional
+    public BulkUpdateResultDto updatePrices(List<PriceUpdateDto> prices) {
+        // The last price given for an id wins
+        Map<Long, Double> latest = prices.stream()
+                .collect(Collectors.toMap(PriceUpdateDto::getId, PriceUpdateDto::getPrice,
+                        (first, last) -> last, LinkedHashMap::new));
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache queryTimestamps = session.getFactory().getCache().getTimestampsCache();
+        queryTimestamps.preInvalidate(PRODUCT_TABLES, session);
+
+        List<Long> changedIds = new ArrayList<>();
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(UPDATE_PRICE_SQL);
+        try {
+            List<Long> batchIds = new ArrayList<>(batchSize);
+            for (Map.Entry<Long, Double> price : latest.entrySet()) {
+                statement.setDouble(1, price.getValue());
+                statement.setLong(2, price.getKey());
+                statement.setDouble(3, price.getValue());
+                statement.addBatch();
+                batchIds.add(price.getKey());
+                if (batchIds.size() == batchSize) {
+                    executePriceBatch(session, statement, batchIds, changedIds);
+                }
+            }
+            executePriceBatch(session, statement, batchIds, changedIds);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not update prices", UPDATE_PRICE_SQL);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
         }
-        product.getCategories().clear();
-        product.getCategories().addAll(categories);
 
-        Product updatedProduct = productRepository.save(product);
-        return mapToDto(updatedProduct);
+        // Other sessions may cache the old rows until the commit; the changed products and the query results
+        // over products are dropped once the new prices are visible, the rest of the products region stays
+        session.getActionQueue().registerProcess((success, completed) -> {
+            queryTimestamps.invalidate(PRODUCT_TABLES, completed);
+            if (success) {
+                changedIds.forEach(id -> completed.getFactory().getCache().evictEntityData(Product.class, id));
+            }
+        });
+
+        return BulkUpdateResultDto.builder()
+                .requested(prices.size())
+                .updated(changedIds.size())
+                .build();
+    }
+
+    // Unchanged prices match no row, so only products whose price moved are counted
+    private static void executePriceBatch(SessionImplementor session, PreparedStatement statement,
+                                          List<Long> batchIds, List<Long> changedIds) throws SQLException {
+        if (batchIds.isEmpty()) {
+            return;
+        }
+        int[] counts;
+        session.getEventListenerManager().jdbcExecuteBatchStart();
+        try {
+            counts = statement.executeBatch();
+        } finally {
+            session.getEventListenerManager().jdbcExecuteBatchEnd();
+        }
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO from a driver that rewrites the batch counts as changed
+            if (counts[i] != 0) {
+                changedIds.add(batchIds.get(i));
+            }
+        }
+        batchIds.clear();
     }
 
     @Override
     @Transactional
     public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        productRepository.delete(product);
+        if (deleteProductRows(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
     }
 
-    private Product mapToEntity(ProductDto productDto) {
-        List<Category> categories = categoryRepository.findAllById(productDto.getCategoryIds());
-        if (categories.isEmpty()) {
+    @Override
+    @Transactional
+    public int deleteProducts(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_DELETE) {
+            throw new BadRequestException("ids must contain between 1 and " + MAX_BULK_DELETE + " ids");
+        }
+        return deleteProductRows(ids);
+    }
+
+    // Comments, join rows, then products: three statements however many comments the products have
+    private int deleteProductRows(List<Long> ids) {
+        commentRepository.deleteByProductIds(ids);
+        productRepository.deleteCategoryLinksByProductIds(ids);
+        int deleted = productRepository.deleteByIds(ids);
+        ids.forEach(searchIndex::remove);
+        return deleted;
+    }
+
+    // Ids are checked against the category cache; the association itself only needs references
+    private Set<Category> resolveCategories(List<Long> categoryIds) {
+        return validCategoryIds(categoryIds).stream()
+                .map(id -> entityManager.getReference(Category.class, id))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Long> validCategoryIds(List<Long> categoryIds) {
+        Set<Long> existingIds = categoryService.findExistingIds(categoryIds);
+        if (existingIds.isEmpty()) {
             throw new ResourceNotFoundException("No valid categories found with the provided IDs");
         }
+        return existingIds;
+    }
+
+    // Only ids that were actually added or removed turn into join-table inserts and deletes
+    private void updateCategories(Product product, List<Long> categoryIds) {
+        Set<Long> wantedIds = validCategoryIds(categoryIds);
+        product.getCategories().removeIf(category -> !wantedIds.contains(category.getId()));
+        Set<Long> currentIds = product.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        wantedIds.stream()
+                .filter(id -> !currentIds.contains(id))
+                .forEach(id -> product.getCategories().add(entityManager.getReference(Category.class, id)));
+    }
+
+    private Product mapToEntity(ProductDto productDto) {
+        Set<Category> categories = resolveCategories(productDto.getCategoryIds());
 
         return Product.builder()
                 .name(productDto.getName())
@@ -95,15 +577,129 @@ public class ProductServiceImpl implements ProductService {
                 .build();
     }
 
-    private ProductDto mapToDto(Product product) {
-        return ProductDto.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .price(product.getPrice())
-                .description(product.getDescription())
-                .categoryIds(product.getCategories().stream()
-                        .map(Category::getId)
-                        .collect(Collectors.toList()))
-                .build();
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(ProductDto.class);
+        if (format == ExportFormat.CSV) {
+            writer.write("id,name,price,description,categoryIds\n");
+        }
+
+        List<Product> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    writeExportChunk(chunk, format, jsonWriter, writer);
+                }
+            }
+            writeExportChunk(chunk, format, jsonWriter, writer);
+        }
+        writer.flush();
+    }
+
+    private void writeExportChunk(List<Product> chunk, ExportFormat format,
+                                  ObjectWriter jsonWriter, Writer writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        for (ProductDto dto : mapToDtos(chunk)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(dto.getId() + "," + csv(dto.getName()) + "," + dto.getPrice() + ","
+                        + csv(dto.getDescription()) + ","
+                        + dto.getCategoryIds().stream().map(String::valueOf).collect(Collectors.joining(";")) + "\n");
+            } else {
+                writer.write(jsonWriter.writeValueAsString(dto));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+
+        // Detach exported rows so the persistence context stays flat for the whole export
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // Cursor layout: "<sort>|<id>|<sort value>", base64url encoded so clients treat it as opaque
+    private String encodeCursor(Product last, ProductSort sort) {
+        String value = switch (sort) {
+            case ID -> "";
+            case PRICE -> String.valueOf(last.getPrice());
+            case NAME -> last.getName();
+        };
+        return encodeCursor(last.getId(), value, sort);
+    }
+
+    private String encodeCursor(Long lastId, String value, ProductSort sort) {
+        String raw = sort.name() + "|" + lastId + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor, ProductSort sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new BadRequestException("Cursor does not match sort: " + sort.name().toLowerCase());
+            }
+            Long.parseLong(parts[1]);
+            if (sort == ProductSort.PRICE) {
+                Double.parseDouble(parts[2]);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Maps a list of products with one join-table query instead of one lazy categories load per product
+    private List<ProductDto> mapToDtos(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<Long>> categoryIds = groupCategoryIds(productRepository.findCategoryLinks(
+                products.stream().map(Product::getId).collect(Collectors.toList())));
+        return products.stream()
+                .map(product -> productMapper.toDto(product, categoryIds.getOrDefault(product.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    // Sparse-fieldset rows: the product_categories lookup only runs when categoryIds is wanted
+    private List<ProductDto> mapRowsToDtos(List<Tuple> rows, Set<ProductField> fields) {
+        Map<Long, List<Long>> categoryIds = fields.contains(ProductField.CATEGORY_IDS) && !rows.isEmpty()
+                ? groupCategoryIds(productRepository.findCategoryLinks(rows.stream()
+                        .map(row -> row.get("id", Long.class))
+                        .collect(Collectors.toList())))
+                : null;
+        return rows.stream()
+                .map(row -> productMapper.toDto(row, fields, categoryIds))
+                .collect(Collectors.toList());
+    }
+
+    // Projected columns for the selected fields; categoryIds comes from the join table instead
+    private List<String> columns(Set<ProductField> fields) {
+        return fields.stream()
+                .filter(field -> field != ProductField.CATEGORY_IDS)
+                .map(ProductField::getProperty)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private Map<Long, List<Long>> groupCategoryIds(List<ProductCategoryLink> links) {
+        return links.stream()
+                .collect(Collectors.groupingBy(ProductCategoryLink::getProductId,
+                        Collectors.mapping(ProductCategoryLink::getCategoryId, Collectors.toList())));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.CommentService;
+import com.product_crud.service.ProductService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the application on its own in-memory H2 database (MySQL mode), seeds it,
+ * then drives the product, category and comment endpoints with a closed-loop client (each thread sends
+ * its next request as soon as the previous one completes). Latencies go into one HDR histogram per
+ * endpoint; the run fails when an endpoint answers with errors or misses its p95/p99 budget.
+ * <p>
+ * Everything is tunable with system properties, e.g.
+ * mvn test -Pbenchmark -Dtest=ApiLoadTests -Dload.products=5000 -Dload.threads=32 -Dload.budget.product.p99-ms=50
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:api_load_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "server.tomcat.threads.max=64"
+})
+@ActiveProfiles("test")
+class ApiLoadTests {
+    private static final int CATEGORIES = Integer.getInteger("load.categories", 20);
+    private static final int PRODUCTS = Integer.getInteger("load.products", 1000);
+    private static final int COMMENTS_PER_PRODUCT = Integer.getInteger("load.comments-per-product", 2);
+    private static final int THREADS = Integer.getInteger("load.threads", 8);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 20);
+    private static final long MAX_TRACKED_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void endpointsStayWithinLatencyBudgets() throws InterruptedException {
+        List<Long> productIds = seed();
+        List<Endpoint> endpoints = endpoints(productIds);
+
+        run(endpoints, WARMUP_SECONDS);
+        endpoints.forEach(Endpoint::reset);
+        long elapsedNanos = run(endpoints, DURATION_SECONDS);
+
+        List<String> violations = new ArrayList<>();
+        long requests = 0;
+        System.out.printf("%d threads, %d products, %d s%n", THREADS, PRODUCTS, DURATION_SECONDS);
+        for (Endpoint endpoint : endpoints) {
+            Histogram histogram = endpoint.recorder.getIntervalHistogram();
+            requests += histogram.getTotalCount();
+            double p95 = millis(histogram.getValueAtPercentile(95));
+            double p99 = millis(histogram.getValueAtPercentile(99));
+            System.out.printf("%-28s %8.0f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  max %7.2f ms  errors %d%n",
+                    endpoint.name, histogram.getTotalCount() * 1e9 / elapsedNanos,
+                    millis(histogram.getValueAtPercentile(50)), p95, p99, millis(histogram.getMaxValue()),
+                    endpoint.errors.get());
+
+            if (endpoint.errors.get() > 0) {
+                violations.add(endpoint.name + ": " + endpoint.errors.get() + " failed requests");
+            }
+            if (p95 > endpoint.p95BudgetMillis) {
+                violations.add(String.format("%s: p95 %.2f ms > budget %d ms", endpoint.name, p95, endpoint.p95BudgetMillis));
+            }
+            if (p99 > endpoint.p99BudgetMillis) {
+                violations.add(String.format("%s: p99 %.2f ms > budget %d ms", endpoint.name, p99, endpoint.p99BudgetMillis));
+            }
+        }
+        System.out.printf("%-28s %8.0f req/s%n", "total", requests * 1e9 / elapsedNanos);
+
+        assertTrue(violations.isEmpty(), "Latency budgets exceeded:\n" + String.join("\n", violations));
+    }
+
+    // Default budgets leave room for a single-core CI runner; -Dload.budget.<key>.p95-ms / .p99-ms override them
+    private List<Endpoint> endpoints(List<Long> productIds) {
+        Function<ThreadLocalRandom, Long> anyProduct = random -> productIds.get(random.nextInt(productIds.size()));
+        return List.of(
+                new Endpoint("GET /api/products/{id}", "product", 30, 200, 400,
+                        random -> get("/api/products/" + anyProduct.apply(random))),
+                new Endpoint("GET /api/products/page", "product-page", 15, 300, 600,
+                        random -> get("/api/products/page?limit=20&sort=price")),
+                new Endpoint("GET /api/products?fields", "product-list-sparse", 5, 500, 1000,
+                        random -> get("/api/products?fields=id,name,price")),
+                new Endpoint("GET /api/categories", "categories", 15, 200, 400,
+                        random -> get("/api/categories")),
+                new Endpoint("GET /api/comments/{productId}", "comments", 25, 200, 400,
+                        random -> get("/api/comments/" + anyProduct.apply(random) + "?limit=20")),
+                new Endpoint("POST /api/comments/{productId}", "add-comment", 10, 300, 600,
+                        random -> HttpRequest.newBuilder(uri("/api/comments/" + anyProduct.apply(random)))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"Load test comment\"}"))
+                                .build()));
+    }
+
+    private long run(List<Endpoint> endpoints, int seconds) throws InterruptedException {
+        int totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            clients.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    send(pick(endpoints, random.nextInt(totalWeight)), random);
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(seconds + 60L, TimeUnit.SECONDS));
+        return System.nanoTime() - start;
+    }
+
+    private void send(Endpoint endpoint, ThreadLocalRandom random) {
+        HttpRequest request = endpoint.request.apply(random);
+        long start = System.nanoTime();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 400) {
+                endpoint.errors.incrementAndGet();
+            }
+        } catch (Exception ex) {
+            endpoint.errors.incrementAndGet();
+        }
+        endpoint.recorder.recordValue(Math.min(System.nanoTime() - start, MAX_TRACKED_LATENCY_NANOS));
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int ticket) {
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights changed during the run");
+    }
+
+    private List<Long> seed() {
+        List<Long> categoryIds = IntStream.range(0, CATEGORIES)
+                .mapToObj(i -> categoryService.createCategory(
+                        CategoryDto.builder().name("load-category-" + i).build()).getId())
+                .collect(Collectors.toList());
+
+        for (int from = 0; from < PRODUCTS; from += 1000) {
+            List<ProductDto> chunk = IntStream.range(from, Math.min(from + 1000, PRODUCTS))
+                    .mapToObj(i -> ProductDto.builder()
+                            .name("Load product " + i)
+                            .description("Product " + i + " seeded for the API load test")
+                            .price(1 + i % 500)
+                            .categoryIds(List.of(categoryIds.get(i % CATEGORIES), categoryIds.get((i * 7 + 1) % CATEGORIES)))
+                            .build())
+                    .collect(Collectors.toList());
+            BulkImportReportDto report = productService.importProducts(chunk);
+            assertEquals(chunk.size(), report.getImported());
+        }
+
+        // Every product gets at least one comment, so GET /api/comments/{productId} never answers with an error
+        List<Long> productIds = productService.getAllProducts().stream()
+                .map(ProductDto::getId)
+                .collect(Collectors.toList());
+        int comments = Math.max(1, COMMENTS_PER_PRODUCT);
+        for (Long productId : productIds) {
+            for (int i = 0; i < comments; i++) {
+                commentService.addCommentToProduct(productId, CommentDto.builder().content("Seed comment " + i).build());
+            }
+        }
+        return productIds;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept", "application/json").GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final long p95BudgetMillis;
+        private final long p99BudgetMillis;
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+        private final Recorder recorder = new Recorder(MAX_TRACKED_LATENCY_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        private Endpoint(String name, String key, int weight, long p95BudgetMillis, long p99BudgetMillis,
+                         Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.p95BudgetMillis = Long.getLong("load.budget." + key + ".p95-ms", p95BudgetMillis);
+            this.p99BudgetMillis = Long.getLong("load.budget." + key + ".p99-ms", p99BudgetMillis);
+            this.request = request;
+        }
+
+        private void reset() {
+            recorder.reset();
+            errors.set(0);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.repository.ProductRepository;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the single-row create path with the batched bulk import.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportBenchmarkTests {
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void bulkImportVersusSingleRowCreate() {
+        List<Long> categoryIds = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> categoryService.createCategory(
+                        CategoryDto.builder().name("import-benchmark-" + i).build()).getId())
+                .collect(Collectors.toList());
+
+        // Warm up both paths so JIT and connection pool are not part of the measurement
+        products(200, categoryIds).forEach(productService::createProduct);
+        productService.importProducts(products(200, categoryIds));
+
+        long before = productRepository.count();
+
+        long singleStart = System.nanoTime();
+        products(ROWS, categoryIds).forEach(productService::createProduct);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long bulkStart = System.nanoTime();
+        BulkImportReportDto report = productService.importProducts(products(ROWS, categoryIds));
+        long bulkNanos = System.nanoTime() - bulkStart;
+
+        assertEquals(ROWS, report.getImported());
+        assertEquals(before + 2L * ROWS, productRepository.count());
+
+        System.out.printf("single-row create: %d rows in %d ms (%.0f rows/s)%n",
+                ROWS, singleNanos / 1_000_000, ROWS * 1e9 / singleNanos);
+        System.out.printf("bulk import:       %d rows in %d ms (%.0f rows/s), %d batches of %d%n",
+                ROWS, bulkNanos / 1_000_000, ROWS * 1e9 / bulkNanos,
+                report.getBatches().size(), report.getBatchSize());
+    }
+
+    private List<ProductDto> products(int count, List<Long> categoryIds) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ProductDto.builder()
+                        .name("Product " + i)
+                        .description("Benchmark product " + i)
+                        .price(10 + i % 500)
+                        .categoryIds(List.of(categoryIds.get(i % categoryIds.size()),
+                                categoryIds.get((i + 1) % categoryIds.size())))
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,91 @@
+package com.product_crud.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.product_crud.payload.ProductDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares payload size and encode/decode time of a product list in JSON, CBOR and Smile,
+ * using the same mappers the HTTP message converters use.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSerializationBenchmarkTests {
+    private static final int PRODUCTS = 1000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 500;
+    private static final TypeReference<List<ProductDto>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void binaryFormatsVersusJson() throws IOException {
+        List<ProductDto> products = products();
+
+        measure("json ", jsonConverter.getObjectMapper(), products);
+        measure("cbor ", cborConverter.getObjectMapper(), products);
+        measure("smile", smileConverter.getObjectMapper(), products);
+    }
+
+    private void measure(String format, ObjectMapper mapper, List<ProductDto> products) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(products);
+        assertEquals(PRODUCTS, mapper.readValue(encoded, PRODUCT_LIST).size());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(products), PRODUCT_LIST);
+        }
+
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            encoded = mapper.writeValueAsBytes(products);
+        }
+        long encodeNanos = System.nanoTime() - encodeStart;
+
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(encoded, PRODUCT_LIST);
+        }
+        long decodeNanos = System.nanoTime() - decodeStart;
+
+        System.out.printf("%s: %7d bytes for %d products, encode %6.0f us, decode %6.0f us%n",
+                format, encoded.length, PRODUCTS, encodeNanos / 1e3 / ROUNDS, decodeNanos / 1e3 / ROUNDS);
+    }
+
+    private List<ProductDto> products() {
+        return IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductDto.builder()
+                        .id((long) i + 1)
+                        .name("Product " + i)
+                        .description("Serialization benchmark product number " + i)
+                        .price(9.99 + i % 500)
+                        .categoryIds(List.of((long) i % 7 + 1, (long) i % 11 + 1))
+                        .version((long) i % 3)
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
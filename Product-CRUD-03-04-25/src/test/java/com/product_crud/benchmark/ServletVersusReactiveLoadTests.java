@@ -0,0 +1,125 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.ProductCrudApplication;
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sends the same concurrent requests to the servlet stack (Tomcat + JDBC) and to the reactive
+ * profile (Netty + R2DBC), both limited to 10 database connections, and prints throughput and
+ * latency percentiles. Both stacks share one database; against MySQL, pass
+ * -Dspring.datasource.url=... and -Dspring.r2dbc.url=... instead of the in-memory H2 default.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ServletVersusReactiveLoadTests {
+    private static final int PRODUCTS = 200;
+    private static final int CONCURRENCY = 256;
+    private static final int DB_CONNECTIONS = 10;
+
+    @Test
+    void servletVersusReactive() {
+        try (ConfigurableApplicationContext servlet = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.datasource.hikari.maximum-pool-size=" + DB_CONNECTIONS,
+                        // The reactive stack has no concurrency limit, so the servlet one is off as well
+                        "--concurrency-limit.enabled=false")) {
+            List<Long> ids = seed(servlet);
+            try (ConfigurableApplicationContext reactive = new SpringApplicationBuilder(ProductCrudApplication.class)
+                    .profiles("reactive", "test")
+                    .run("--server.port=0", "--spring.r2dbc.pool.max-size=" + DB_CONNECTIONS)) {
+                WebClient servletClient = client(servlet);
+                WebClient reactiveClient = client(reactive);
+
+                for (WebClient client : List.of(servletClient, reactiveClient)) {
+                    load(client, 2_000, i -> "/api/products/" + ids.get(i % ids.size()));
+                }
+                report("servlet ", "GET /api/products/{id}", servletClient, 10_000,
+                        i -> "/api/products/" + ids.get(i % ids.size()));
+                report("reactive", "GET /api/products/{id}", reactiveClient, 10_000,
+                        i -> "/api/products/" + ids.get(i % ids.size()));
+                report("servlet ", "GET /api/products (200 rows)", servletClient, 500, i -> "/api/products");
+                report("reactive", "GET /api/products (200 rows)", reactiveClient, 500, i -> "/api/products");
+            }
+        }
+    }
+
+    private List<Long> seed(ConfigurableApplicationContext servlet) {
+        Long categoryId = servlet.getBean(CategoryService.class)
+                .createCategory(CategoryDto.builder().name("load-" + System.nanoTime()).build()).getId();
+        BulkImportReportDto report = servlet.getBean(ProductService.class).importProducts(IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductDto.builder()
+                        .name("Load product " + i)
+                        .description("Load test product " + i)
+                        .price(10 + i)
+                        .categoryIds(List.of(categoryId))
+                        .build())
+                .collect(Collectors.toList()));
+        assertEquals(PRODUCTS, report.getImported());
+        return servlet.getBean(ProductService.class).getAllProducts().stream()
+                .map(ProductDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void report(String stack, String scenario, WebClient client, int requests, IntFunction<String> uri) {
+        long start = System.nanoTime();
+        long[] latencies = load(client, requests, uri);
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("%s %-30s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms%n",
+                stack, scenario, requests * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    private long[] load(WebClient client, int requests, IntFunction<String> uri) {
+        long[] latencies = new long[requests];
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get().uri(uri.apply(i))
+                            .retrieve()
+                            .bodyToMono(byte[].class)
+                            .doOnNext(body -> latencies[i] = System.nanoTime() - start);
+                }, CONCURRENCY)
+                .blockLast();
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private WebClient client(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("load-" + port)
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build());
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.product_crud.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cold-starts the packaged application in a fresh JVM per run and measures time-to-first-request (process
+ * launch until GET /api/categories answers 200) and resident memory at that point, for the plain jar and
+ * for each fast-startup step: the fast-startup profile (lazy beans, no Hibernate schema or metadata work),
+ * AOT bean definitions and the AppCDS archive. Each mode runs startup.runs times and reports the median.
+ * <p>
+ * Uses the jar extracted by the fast-startup build, with H2 appended to its classpath in place of MySQL:
+ * mvn package -Pfast-startup -DskipTests && mvn test -Pbenchmark -Dtest=StartupBenchmarkTests
+ */
+@Tag("benchmark")
+class StartupBenchmarkTests {
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Path FAST_STARTUP_DIR = Path.of("target", "fast-startup").toAbsolutePath();
+    private static final Path DATABASE = Path.of("target", "startup-benchmark", "db").toAbsolutePath();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void timeToFirstRequestAndMemory() throws Exception {
+        Path jar = executableJar();
+        Path archive = FAST_STARTUP_DIR.resolve("application.jsa");
+        assumeTrue(jar != null && Files.exists(archive), "Build it first: mvn package -Pfast-startup -DskipTests");
+
+        Files.createDirectories(DATABASE.getParent());
+        // One run with the default configuration creates the schema; the measured runs find it in place
+        start(jar, List.of(), List.of("--spring.jpa.hibernate.ddl-auto=create")).close();
+
+        List<String> fastStartup = List.of("--spring.profiles.active=fast-startup");
+        measure("jar", jar, List.of(), List.of());
+        measure("+ fast-startup profile", jar, List.of(), fastStartup);
+        measure("+ AOT", jar, List.of("-Dspring.aot.enabled=true"), fastStartup);
+        measure("+ AppCDS", jar, List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive,
+                "-Xlog:cds=off", "-Xlog:cds+dynamic=off"), fastStartup);
+    }
+
+    private void measure(String mode, Path jar, List<String> jvmOptions, List<String> arguments) throws Exception {
+        long[] millis = new long[RUNS];
+        long[] rssKb = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            try (Started started = start(jar, jvmOptions, arguments)) {
+                millis[i] = started.timeToFirstRequestMillis;
+                rssKb[i] = started.rssKb();
+            }
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        System.out.printf("%-24s time-to-first-request %6d ms (min %6d, max %6d)  RSS %6d MB%n",
+                mode, millis[RUNS / 2], millis[0], millis[RUNS - 1], rssKb[RUNS / 2] / 1024);
+    }
+
+    private Started start(Path jar, List<String> jvmOptions, List<String> arguments) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        // The archive was recorded with the jar alone on the classpath; appending H2 keeps it usable
+        command.add("-cp");
+        command.add(jar + File.pathSeparator + h2Jar());
+        command.add("com.product_crud.ProductCrudApplication");
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=0");
+        command.add("--spring.datasource.url=jdbc:h2:file:" + DATABASE + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        command.addAll(arguments);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(FAST_STARTUP_DIR.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(DATABASE.resolveSibling("last-run.log").toFile())
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/categories")).build();
+        long deadline = start + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return new Started(process, (System.nanoTime() - start) / 1_000_000);
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        process.destroyForcibly().waitFor();
+        throw new AssertionError("No response within 120 s, see " + DATABASE.resolveSibling("last-run.log"));
+    }
+
+    private static Path executableJar() throws IOException {
+        if (!Files.isDirectory(FAST_STARTUP_DIR)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(FAST_STARTUP_DIR)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static Path h2Jar() throws Exception {
+        return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Started(Process process, long timeToFirstRequestMillis) implements AutoCloseable {
+        // Resident set size from /proc, so Linux only; 0 elsewhere
+        long rssKb() throws IOException {
+            Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+            if (!Files.exists(status)) {
+                return 0;
+            }
+            try (Stream<String> lines = Files.lines(status)) {
+                return lines.filter(line -> line.startsWith("VmRSS:"))
+                        .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                        .findFirst().orElse(0L);
+            }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            assertTrue(process.waitFor(30, TimeUnit.SECONDS), "application did not stop");
+        }
+    }
+}
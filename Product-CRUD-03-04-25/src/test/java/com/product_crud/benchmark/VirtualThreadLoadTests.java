@@ -0,0 +1,136 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.ProductCrudApplication;
+import com.product_crud.payload.BulkImportReportDto;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Opens far more concurrent connections than Tomcat has platform threads and compares the default
+ * thread-per-request pool with the virtual-threads profile (virtual threads plus the database
+ * concurrency guard), both limited to 10 database connections. Prints throughput, latency
+ * percentiles, 503 responses and the time requests spent waiting for a database permit.
+ * The virtual-thread run needs Java 21+ and is skipped on older JVMs.
+ * Run with: mvn test -Pbenchmark,java21 -Dtest=VirtualThreadLoadTests
+ */
+@Tag("benchmark")
+class VirtualThreadLoadTests {
+    private static final int PRODUCTS = 200;
+    private static final int CONCURRENCY = 5_000;
+    private static final int REQUESTS = 50_000;
+    private static final int DB_CONNECTIONS = 10;
+
+    @Test
+    void platformVersusVirtualThreads() {
+        run("platform", "test");
+        if (Runtime.version().feature() >= 21) {
+            run("virtual ", "virtual-threads", "test");
+        } else {
+            System.out.println("virtual  skipped: virtual threads need Java 21 (-Pjava21), running on " + Runtime.version());
+        }
+    }
+
+    private void run(String mode, String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductCrudApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--server.tomcat.max-connections=" + (CONCURRENCY * 2),
+                        "--spring.datasource.hikari.maximum-pool-size=" + DB_CONNECTIONS,
+                        // Compares queueing for the pool, so nothing is shed in front of the controllers
+                        "--concurrency-limit.enabled=false")) {
+            List<Long> ids = seed(context);
+            WebClient client = client(context);
+            load(client, CONCURRENCY * 2, ids);
+
+            long start = System.nanoTime();
+            Result result = load(client, REQUESTS, ids);
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(result.latencies);
+            double guardWaitMs = context.getBean(MeterRegistry.class).find("db.guard.wait").timers().stream()
+                    .mapToDouble(timer -> timer.max(TimeUnit.MILLISECONDS))
+                    .max().orElse(0);
+            System.out.printf("%s %d clients %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  503s %d"
+                            + "  max permit wait %7.2f ms%n",
+                    mode, CONCURRENCY, REQUESTS * 1e9 / elapsed,
+                    percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                    result.latencies[result.latencies.length - 1] / 1e6, result.rejected.get(), guardWaitMs);
+        }
+    }
+
+    private List<Long> seed(ConfigurableApplicationContext context) {
+        Long categoryId = context.getBean(CategoryService.class)
+                .createCategory(CategoryDto.builder().name("threads-" + System.nanoTime()).build()).getId();
+        BulkImportReportDto report = context.getBean(ProductService.class).importProducts(IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductDto.builder()
+                        .name("Thread product " + i)
+                        .description("Thread mode product " + i)
+                        .price(10 + i)
+                        .categoryIds(List.of(categoryId))
+                        .build())
+                .collect(Collectors.toList()));
+        assertEquals(PRODUCTS, report.getImported());
+        return context.getBean(ProductService.class).getAllProducts().stream()
+                .map(ProductDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Result load(WebClient client, int requests, List<Long> ids) {
+        Result result = new Result(new long[requests], new AtomicInteger());
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get().uri("/api/products/" + ids.get(i % ids.size()))
+                            .exchangeToMono(response -> {
+                                if (response.statusCode().value() == 503) {
+                                    result.rejected.incrementAndGet();
+                                }
+                                return response.releaseBody();
+                            })
+                            .then(Mono.fromRunnable(() -> result.latencies[i] = System.nanoTime() - start));
+                }, CONCURRENCY)
+                .blockLast();
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private WebClient client(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("threads-" + port)
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build());
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private record Result(long[] latencies, AtomicInteger rejected) {
+    }
+}
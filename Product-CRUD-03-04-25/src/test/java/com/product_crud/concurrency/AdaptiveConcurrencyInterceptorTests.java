@@ -0,0 +1,66 @@
+package com.product_crud.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "concurrency-limit.enabled=true",
+        "concurrency-limit.reads.initial-limit=1",
+        "concurrency-limit.reads.min-limit=1",
+        "concurrency-limit.reads.max-limit=1",
+        "concurrency-limit.retry-after-seconds=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdaptiveConcurrencyInterceptorTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdaptiveConcurrencyInterceptor interceptor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readsOverTheLimitAreShedWhileWritesStillPass() throws Exception {
+        AdaptiveConcurrencyLimit reads = interceptor.limitFor(HttpMethod.GET);
+        double rejectedBefore = rejected("read");
+
+        reads.tryAcquire();
+        try {
+            mockMvc.perform(get("/api/categories"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+            mockMvc.perform(post("/api/categories")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"limit-" + System.nanoTime() + "\"}"))
+                    .andExpect(status().isOk());
+        } finally {
+            reads.release();
+        }
+
+        assertEquals(rejectedBefore + 1, rejected("read"));
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        assertEquals(0, reads.getInFlight());
+        assertEquals(0, interceptor.limitFor(HttpMethod.POST).getInFlight());
+    }
+
+    private double rejected(String kind) {
+        return meterRegistry.get("api.concurrency.rejected").tag("kind", kind).counter().count();
+    }
+}
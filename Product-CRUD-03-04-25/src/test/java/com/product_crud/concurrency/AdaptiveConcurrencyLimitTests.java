@@ -0,0 +1,65 @@
+package com.product_crud.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTests {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.2, 1.5);
+
+        assertEquals(0, limit.tryAcquire());
+        assertEquals(1, limit.tryAcquire());
+        assertEquals(-1, limit.tryAcquire());
+
+        limit.release();
+        assertEquals(1, limit.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 0.2, 1.5);
+
+        samples(limit, 200, FAST);
+        int grown = limit.getLimit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        samples(limit, 50, SLOW);
+        int shrunk = limit.getLimit();
+        assertTrue(shrunk < grown / 2, "limit " + grown + " -> " + shrunk);
+
+        samples(limit, 1000, SLOW);
+        assertTrue(limit.getLimit() > shrunk, "a lasting latency becomes the new baseline");
+    }
+
+    @Test
+    void staysWithinBoundsAndIgnoresMostlyIdleSamples() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 12, 0.2, 1.5);
+
+        samples(limit, 500, FAST);
+        assertEquals(12, limit.getLimit());
+        samples(limit, 50, SLOW * 10);
+        assertEquals(4, limit.getLimit());
+
+        for (int i = 0; i < 500; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, 0);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    // Each sample reports the limit as fully used, like a saturated server
+    private static void samples(AdaptiveConcurrencyLimit limit, int count, long rttNanos) {
+        for (int i = 0; i < count; i++) {
+            limit.tryAcquire();
+            limit.release(rttNanos, limit.getLimit());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.product_crud.concurrency;
+
+import com.product_crud.exception.ServiceUnavailableException;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "db.concurrency-guard.enabled=true",
+        "db.concurrency-guard.permits=1",
+        "db.concurrency-guard.acquire-timeout-ms=200"
+})
+@ActiveProfiles("test")
+class DatabaseConcurrencyGuardTests {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PermitHolder permitHolder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void nestedRepositoryCallsShareTheOutermostPermit() {
+        Long productId = createProduct();
+        long waitsBefore = meterRegistry.timer("db.guard.wait").count();
+
+        productService.getProductById(productId);
+
+        assertEquals(waitsBefore + 1, meterRegistry.timer("db.guard.wait").count());
+        assertEquals(1, meterRegistry.get("db.guard.permits.available").gauge().value());
+    }
+
+    @Test
+    void callersAreShedOnceThePermitsAreHeldPastTheTimeout() throws Exception {
+        Long productId = createProduct();
+        double rejectedBefore = meterRegistry.counter("db.guard.rejected").count();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> permitHolder.hold(holding, release));
+        try {
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+            assertThrows(ServiceUnavailableException.class, () -> productService.getProductById(productId));
+            assertEquals(rejectedBefore + 1, meterRegistry.counter("db.guard.rejected").count());
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(productId, productService.getProductById(productId).getId());
+    }
+
+    private Long createProduct() {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("guard-" + System.nanoTime()).build()).getId();
+        return productService.createProduct(ProductDto.builder()
+                .name("Guarded product")
+                .description("Read under the concurrency guard")
+                .price(10)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+
+    @TestConfiguration
+    static class PermitHolderConfig {
+        @Bean
+        PermitHolder permitHolder() {
+            return new PermitHolder();
+        }
+    }
+
+    static class PermitHolder {
+        @Transactional(readOnly = true)
+        public void hold(CountDownLatch holding, CountDownLatch release) {
+            holding.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
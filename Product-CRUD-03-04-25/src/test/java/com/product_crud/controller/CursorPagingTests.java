@@ -0,0 +1,246 @@
+package com.product_crud.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.repository.ProductRepository;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.CommentService;
+import com.product_crud.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CursorPagingTests {
+    // Seven products share a name and a price. Pages of five put at least one page boundary inside
+    // every run of seven rows, so each walk has to resume in the middle of the tie
+    private static final int TIED = 7;
+    private static final int LIMIT = 5;
+    // One price per test, above the bands of ProductFilterTests, so no other product shares it
+    private static final AtomicInteger PRICES = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long categoryId;
+    private String tiedName;
+    private double tiedPrice;
+
+    @BeforeEach
+    void setUp() {
+        long marker = System.nanoTime();
+        categoryId = categoryService.createCategory(CategoryDto.builder().name("cursor-" + marker).build()).getId();
+        tiedName = "Tied " + marker;
+        tiedPrice = 2_000_000 + PRICES.incrementAndGet();
+    }
+
+    @Test
+    void walkingEveryPageSortedByIdReturnsEachProductOnceInIdOrder() throws Exception {
+        List<Long> tied = createTiedProducts();
+
+        List<JsonNode> products = walk("id");
+
+        assertEveryProductOnce(products, tied);
+        for (int i = 1; i < products.size(); i++) {
+            assertTrue(id(products.get(i - 1)) < id(products.get(i)));
+        }
+    }
+
+    @Test
+    void walkingEveryPageSortedByPriceBreaksTiesById() throws Exception {
+        List<Long> tied = createTiedProducts();
+
+        List<JsonNode> products = walk("price");
+
+        assertEveryProductOnce(products, tied);
+        for (int i = 1; i < products.size(); i++) {
+            double previous = products.get(i - 1).get("price").asDouble();
+            double current = products.get(i).get("price").asDouble();
+            assertTrue(previous < current || previous == current && id(products.get(i - 1)) < id(products.get(i)));
+        }
+        assertEquals(tied, idsOfTie(products));
+    }
+
+    @Test
+    void walkingEveryPageSortedByNameBreaksTiesById() throws Exception {
+        List<Long> tied = createTiedProducts();
+
+        List<JsonNode> products = walk("name");
+
+        assertEveryProductOnce(products, tied);
+        for (int i = 1; i < products.size(); i++) {
+            if (products.get(i - 1).get("name").asText().equals(products.get(i).get("name").asText())) {
+                assertTrue(id(products.get(i - 1)) < id(products.get(i)));
+            }
+        }
+        assertEquals(tied, idsOfTie(products));
+    }
+
+    @Test
+    void malformedTamperedOrMismatchedCursorsAndBadLimitsAreRejected() throws Exception {
+        createTiedProducts();
+        String priceCursor = page("price", null, LIMIT).get("nextCursor").asText();
+
+        assertBadRequest("/api/products/page?after=not*base64", "Invalid cursor");
+        assertBadRequest("/api/products/page?after=" + cursor("ID|not-a-number|"), "Invalid cursor");
+        assertBadRequest("/api/products/page?sort=price&after=" + cursor("PRICE|1|cheap"), "Invalid cursor");
+        assertBadRequest("/api/products/page?after=" + cursor("ID|1"), "Cursor does not match sort: id");
+        assertBadRequest("/api/products/page?sort=name&after=" + priceCursor, "Cursor does not match sort: name");
+        assertBadRequest("/api/products/page?sort=rating", "Unsupported sort: rating (allowed: id, price, name)");
+        assertBadRequest("/api/products/page?limit=0", "limit must be between 1 and 100");
+        assertBadRequest("/api/products/page?limit=101", "limit must be between 1 and 100");
+
+        // The untouched cursor still works
+        mockMvc.perform(get("/api/products/page").param("sort", "price").param("after", priceCursor))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void commentPagesFollowTheAfterCursorUntilItIsNull() throws Exception {
+        Long productId = createProduct("Commented", 10);
+        List<Long> comments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            comments.add(commentService.addCommentToProduct(productId,
+                    CommentDto.builder().content("Comment " + i).build()).getId());
+        }
+
+        // A product without comments has an empty first page; a missing product is a 404
+        mockMvc.perform(get("/api/comments/" + createProduct("Uncommented", 10)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/comments/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            String uri = "/api/comments/" + productId + "?limit=2" + (after == null ? "" : "&after=" + after);
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(uri))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(comment -> seen.add(comment.get("id").asLong()));
+            after = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (after != null);
+
+        assertEquals(comments, seen);
+        assertEquals(3, pages);
+        assertBadRequest("/api/comments/" + productId + "?limit=0", "limit must be between 1 and 100");
+        assertBadRequest("/api/comments/" + productId + "?limit=101", "limit must be between 1 and 100");
+    }
+
+    // Follows nextCursor from the first page until it is null; every page but the last is full
+    private List<JsonNode> walk(String sort) throws Exception {
+        List<JsonNode> products = new ArrayList<>();
+        String after = null;
+        while (true) {
+            JsonNode page = page(sort, after, LIMIT);
+            page.get("content").forEach(products::add);
+            if (!page.hasNonNull("nextCursor")) {
+                assertTrue(page.get("content").size() <= LIMIT);
+                return products;
+            }
+            assertEquals(LIMIT, page.get("content").size());
+            after = page.get("nextCursor").asText();
+        }
+    }
+
+    private JsonNode page(String sort, String after, int limit) throws Exception {
+        String uri = "/api/products/page?sort=" + sort + "&limit=" + limit + (after == null ? "" : "&after=" + after);
+        return objectMapper.readTree(mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private void assertEveryProductOnce(List<JsonNode> products, List<Long> tied) {
+        Set<Long> ids = new HashSet<>();
+        products.forEach(product -> assertTrue(ids.add(id(product)), "Returned twice: " + id(product)));
+        assertEquals(productRepository.count(), ids.size());
+        assertTrue(ids.containsAll(tied));
+    }
+
+    // The tied products, in the order the walk returned them; they have to be next to each other
+    private List<Long> idsOfTie(List<JsonNode> products) {
+        List<Integer> positions = IntStream.range(0, products.size())
+                .filter(i -> products.get(i).get("name").asText().equals(tiedName))
+                .boxed()
+                .collect(Collectors.toList());
+        assertEquals(TIED, positions.size());
+        assertEquals(TIED - 1, positions.get(TIED - 1) - positions.get(0));
+        return positions.stream().map(i -> id(products.get(i))).collect(Collectors.toList());
+    }
+
+    private void assertBadRequest(String uri, String message) throws Exception {
+        mockMvc.perform(get(uri))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(message));
+    }
+
+    private static String cursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long id(JsonNode product) {
+        return product.get("id").asLong();
+    }
+
+    private List<Long> createTiedProducts() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < TIED; i++) {
+            ids.add(createProduct(tiedName, tiedPrice));
+        }
+        return ids;
+    }
+
+    private Long createProduct(String name, double price) {
+        return productService.createProduct(ProductDto.builder()
+                .name(name)
+                .description("Paged with a cursor")
+                .price(price)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+}
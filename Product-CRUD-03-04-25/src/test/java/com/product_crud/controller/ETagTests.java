@@ -0,0 +1,250 @@
+package com.product_crud.controller;
+
+import com.product_crud.entity.Product;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductSort;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ETagTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("etag-" + System.nanoTime()).build()).getId();
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModifiedWithoutABody() throws Exception {
+        Long id = createProduct("Desk lamp");
+        String etag = etagOf("/api/products/" + id);
+        assertEquals("\"product-" + id + "-0\"", etag);
+
+        mockMvc.perform(get("/api/products/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        String listEtag = etagOf("/api/products");
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+
+        // Any other tag gets the full response
+        mockMvc.perform(get("/api/products/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"product-" + id + "-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithPreconditionFailed() throws Exception {
+        Long id = createProduct("Floor lamp");
+        String stale = etagOf("/api/products/" + id);
+
+        String current = mockMvc.perform(put("/api/products/" + id)
+                        .header(HttpHeaders.IF_MATCH, stale)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Floor lamp v2")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"product-" + id + "-1\"", current);
+
+        mockMvc.perform(put("/api/products/" + id)
+                        .header(HttpHeaders.IF_MATCH, stale)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Floor lamp v3")))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/products/" + id)
+                        .header(HttpHeaders.IF_MATCH, "\"product-" + (id + 1) + "-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Floor lamp v3")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Floor lamp v2", productService.getProductById(id).getName());
+        assertEquals(current, etagOf("/api/products/" + id));
+    }
+
+    @Test
+    void aCommentChangesTheProductEtagSoAnEarlierIfMatchFails() throws Exception {
+        Long id = createProduct("Commented lamp");
+        String beforeComment = etagOf("/api/products/" + id);
+
+        mockMvc.perform(post("/api/comments/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Bright enough\"}"))
+                .andExpect(status().isOk());
+        // The body behind the old ETag had commentCount 0, so the update is refused
+        assertEquals("\"product-" + id + "-1\"", etagOf("/api/products/" + id));
+        mockMvc.perform(put("/api/products/" + id)
+                        .header(HttpHeaders.IF_MATCH, beforeComment)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Commented lamp v2")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(1, productService.getProductById(id).getCommentCount());
+        assertEquals("Commented lamp", productService.getProductById(id).getName());
+    }
+
+    @Test
+    void concurrentUpdateThatWinsTheRaceTurnsTheLoserIntoAConflict() throws Exception {
+        Long id = createProduct("Wall lamp");
+        String etag = etagOf("/api/products/" + id);
+        try {
+            // Another writer commits behind the cached row: the request passes its If-Match check
+            // against the version it read, then its versioned UPDATE matches no row
+            jdbcTemplate.update("update products set version = version + 1, name = ? where id = ?", "Winner", id);
+
+            mockMvc.perform(put("/api/products/" + id)
+                            .header(HttpHeaders.IF_MATCH, etag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("Loser")))
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string("The resource was modified concurrently, reload it and retry"));
+        } finally {
+            entityManagerFactory.getCache().evict(Product.class, id);
+        }
+
+        assertEquals("Winner", productService.getProductById(id).getName());
+        assertEquals("\"product-" + id + "-1\"", etagOf("/api/products/" + id));
+    }
+
+    @Test
+    void listEtagChangesOnCreateUpdateAndDelete() throws Exception {
+        String initial = etagOf("/api/products");
+
+        String created = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Reading lamp")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = Long.valueOf(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        String afterCreate = etagOf("/api/products");
+        assertNotEquals(initial, afterCreate);
+
+        mockMvc.perform(put("/api/products/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Reading lamp v2")))
+                .andExpect(status().isOk());
+        String afterUpdate = etagOf("/api/products");
+        assertNotEquals(afterCreate, afterUpdate);
+
+        mockMvc.perform(delete("/api/products/" + id))
+                .andExpect(status().isNoContent());
+        String afterDelete = etagOf("/api/products");
+        // Deleting what was created restores the initial list, so it may restore the initial ETag too
+        assertNotEquals(afterUpdate, afterDelete);
+
+        // A client holding an older list ETag gets the new list, not a 304
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, afterUpdate))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, afterDelete));
+    }
+
+    @Test
+    void pageEtagFollowsOnlyTheRowsOnThePageAndTheParametersShapingIt() throws Exception {
+        Long first = createProduct("Paged lamp");
+        Long second = createProduct("Paged chair");
+        createProduct("Next page");
+        String after = cursorBefore(first);
+        String page = "/api/products/page?limit=2" + after;
+        String etag = etagOf(page);
+
+        mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertNotEquals(etag, etagOf(page + "&fields=id,name"));
+        assertNotEquals(etag, etagOf("/api/products/page?limit=3" + after));
+
+        // A product past the page changes the list, not the page; its next cursor already points past "Paged chair"
+        createProduct("Past the page");
+        mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/products/" + second)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Paged chair v2")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etagOf(page)));
+        assertNotEquals(etag, etagOf(page));
+    }
+
+    // The after parameter of a page starting at the given product: the page holding it is found in steps
+    // of 100, then cut just before it, so the cut page's next cursor points at the product
+    private String cursorBefore(Long id) {
+        String after = null;
+        while (true) {
+            CursorPageDto<ProductDto> page = productService.getProductsPage(after, 100, ProductSort.ID);
+            int index = page.getContent().stream().map(ProductDto::getId).toList().indexOf(id);
+            if (index >= 0) {
+                String cursor = index == 0 ? after : productService.getProductsPage(after, index, ProductSort.ID).getNextCursor();
+                return cursor == null ? "" : "&after=" + cursor;
+            }
+            after = page.getNextCursor();
+        }
+    }
+
+    private Long createProduct(String name) {
+        return productService.createProduct(ProductDto.builder()
+                .name(name)
+                .description("Conditional requests")
+                .price(25)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+
+    private String etagOf(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String body(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Conditional requests\",\"price\":25,"
+                + "\"categoryIds\":[" + categoryId + "]}";
+    }
+}
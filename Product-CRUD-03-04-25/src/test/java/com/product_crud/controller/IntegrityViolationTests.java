@@ -0,0 +1,62 @@
+package com.product_crud.controller;
+
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IntegrityViolationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void duplicateUniqueValueIsReportedAsSuch() throws Exception {
+        String name = "duplicate-" + System.nanoTime();
+        categoryService.createCategory(CategoryDto.builder().name(name).build());
+
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("A resource with the same unique value already exists"));
+    }
+
+    @Test
+    void deletingAReferencedRecordIsReportedAsSuch() throws Exception {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("referenced-" + System.nanoTime()).build()).getId();
+        productService.createProduct(ProductDto.builder()
+                .name("Referencing product")
+                .description("Keeps its category")
+                .price(1)
+                .categoryIds(List.of(categoryId))
+                .build());
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("The resource is still referenced by other records"));
+    }
+}
@@ -0,0 +1,169 @@
+package com.product_crud.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.repository.ProductRepository;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductExportTests {
+    // ProductServiceImpl.EXPORT_CHUNK_SIZE is 500; this spans two full chunks and a partial one
+    private static final int PRODUCTS_ACROSS_CHUNKS = 1_201;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long categoryId;
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        marker = "export-" + System.nanoTime();
+        categoryId = categoryService.createCategory(CategoryDto.builder().name(marker).build()).getId();
+    }
+
+    @Test
+    void ndjsonExportWritesOneProductObjectPerLine() throws Exception {
+        Long lamp = createProduct("Desk lamp", 25.5);
+        Long chair = createProduct("Office chair", 120);
+
+        List<JsonNode> exported = new ArrayList<>();
+        for (String line : export("ndjson", "application/x-ndjson", "products.ndjson").split("\n")) {
+            JsonNode product = objectMapper.readTree(line);
+            if (product.get("description").asText().equals(marker)) {
+                exported.add(product);
+            }
+        }
+
+        assertEquals(2, exported.size());
+        assertEquals(lamp, exported.get(0).get("id").asLong());
+        assertEquals("Desk lamp", exported.get(0).get("name").asText());
+        assertEquals(25.5, exported.get(0).get("price").asDouble());
+        assertEquals(1, exported.get(0).get("categoryIds").size());
+        assertEquals(categoryId, exported.get(0).get("categoryIds").get(0).asLong());
+        assertEquals(chair, exported.get(1).get("id").asLong());
+        assertEquals("Office chair", exported.get(1).get("name").asText());
+    }
+
+    @Test
+    void csvExportQuotesOnlyFieldsWithCommasQuotesOrLineBreaks() throws Exception {
+        Long plain = createProduct("Plain lamp", 10);
+        Long comma = createProduct("Lamp, brass", 11);
+        Long quote = createProduct("The \"Deluxe\" lamp", 12);
+        Long lineBreak = createProduct("Two-line\nlamp", 13);
+
+        String csv = export("csv", "text/csv", "products.csv");
+
+        assertTrue(csv.startsWith("id,name,price,description,categoryIds\n"));
+        assertTrue(csv.contains("\n" + plain + ",Plain lamp,10.0," + marker + "," + categoryId + "\n"));
+        assertTrue(csv.contains("\n" + comma + ",\"Lamp, brass\",11.0," + marker + "," + categoryId + "\n"));
+        assertTrue(csv.contains("\n" + quote + ",\"The \"\"Deluxe\"\" lamp\",12.0," + marker + "," + categoryId + "\n"));
+        assertTrue(csv.contains("\n" + lineBreak + ",\"Two-line\nlamp\",13.0," + marker + "," + categoryId + "\n"));
+    }
+
+    @Test
+    void exportStreamsEveryRowAcrossChunksWithOneCategoryQueryPerChunk() throws Exception {
+        productService.importProducts(IntStream.range(0, PRODUCTS_ACROSS_CHUNKS)
+                .mapToObj(i -> product("Bulk " + i, i))
+                .collect(Collectors.toList()));
+        long total = productRepository.count();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String[] lines = export("ndjson", "application/x-ndjson", "products.ndjson").split("\n");
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(total, lines.length);
+        long previousId = 0;
+        int ours = 0;
+        for (String line : lines) {
+            JsonNode product = objectMapper.readTree(line);
+            assertTrue(product.get("id").asLong() > previousId);
+            previousId = product.get("id").asLong();
+            if (product.get("description").asText().equals(marker)) {
+                assertEquals("Bulk " + ours, product.get("name").asText());
+                assertEquals(categoryId, product.get("categoryIds").get(0).asLong());
+                ours++;
+            }
+        }
+        assertEquals(PRODUCTS_ACROSS_CHUNKS, ours);
+        // The streaming select plus one product_categories lookup per chunk of 500
+        assertEquals(1 + (total + 499) / 500, statements);
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String format, String contentType, String filename) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/products/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, contentType))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private Long createProduct(String name, double price) {
+        return productService.createProduct(product(name, price)).getId();
+    }
+
+    private ProductDto product(String name, double price) {
+        return ProductDto.builder()
+                .name(name)
+                .description(marker)
+                .price(price)
+                .categoryIds(List.of(categoryId))
+                .build();
+    }
+}
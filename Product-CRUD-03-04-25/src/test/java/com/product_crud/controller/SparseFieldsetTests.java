@@ -0,0 +1,145 @@
+package com.product_crud.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductField;
+import com.product_crud.payload.ProductSort;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.CommentService;
+import com.product_crud.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsetTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("fields-" + System.nanoTime()).build()).getId();
+        productService.importProducts(IntStream.range(0, 12)
+                .mapToObj(i -> ProductDto.builder()
+                        .name("Fields product " + i)
+                        .description("A long description that sparse clients never read " + i)
+                        .price(10 + i % 4)
+                        .categoryIds(List.of(categoryId))
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void responseOnlyCarriesTheSelectedFields() throws Exception {
+        JsonNode page = read("/api/products/page?limit=5&fields=id,name,price");
+        for (JsonNode product : page.get("content")) {
+            assertEquals(Set.of("id", "name", "price"), fieldNames(product));
+        }
+
+        JsonNode full = read("/api/products/page?limit=5");
+        assertEquals(Set.of("id", "name", "price", "description", "categoryIds", "comments", "version",
+                "commentCount", "lastCommentAt"), fieldNames(full.get("content").get(0)));
+    }
+
+    @Test
+    void projectionSkipsUnselectedColumnsAndTheCategoryJoin() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        productService.getProductsPage(null, 5, ProductSort.ID, Set.of(ProductField.NAME, ProductField.PRICE));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Arrays.stream(statistics.getQueries()).anyMatch(query -> query.contains("description")));
+
+        statistics.clear();
+        CursorPageDto<ProductDto> withCategories = productService.getProductsPage(
+                null, 5, ProductSort.ID, Set.of(ProductField.NAME, ProductField.CATEGORY_IDS));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertFalse(withCategories.getContent().get(0).getCategoryIds().isEmpty());
+    }
+
+    @Test
+    void projectedPagesFollowTheSameCursorAsFullPages() {
+        Set<ProductField> fields = Set.of(ProductField.ID);
+        for (ProductSort sort : ProductSort.values()) {
+            assertEquals(allIds(sort, ProductField.parse(null)), allIds(sort, fields));
+        }
+    }
+
+    @Test
+    void commentFieldsAndUnknownFields() throws Exception {
+        Long productId = productService.getAllProducts().get(0).getId();
+        commentService.addCommentToProduct(productId, CommentDto.builder().content("Sparse comment").build());
+
+        JsonNode comments = read("/api/comments/" + productId + "?fields=id,content");
+        assertEquals(Set.of("id", "content"), fieldNames(comments.get("content").get(0)));
+
+        mockMvc.perform(get("/api/products?fields=id,secret")).andExpect(status().isBadRequest());
+    }
+
+    private List<Long> allIds(ProductSort sort, Set<ProductField> fields) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPageDto<ProductDto> page = productService.getProductsPage(after, 5, sort, fields);
+            page.getContent().forEach(product -> ids.add(product.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+
+    private JsonNode read(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        return StreamSupport.stream(((Iterable<String>) node::fieldNames).spliterator(), false)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,176 @@
+package com.product_crud.datasource;
+
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.repository.ProductRepository;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The replica is a second in-memory database that nothing replicates to, so each row it holds
+// was put there by the test and tells which database a read went to
+@SpringBootTest(properties = {
+        "replica.datasource.url=jdbc:h2:mem:spring_product_crud_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "replica.datasource.username=sa",
+        "replica.routing.health-check-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTests {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void restoreReplica() {
+        replicaHealthMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplicaAndWritesGoToThePrimary() {
+        Long id = createProduct("Primary lamp");
+        assertEquals(1, rowsOf(primaryDataSource, id));
+        assertEquals(0, rowsOf(replicaDataSource, id));
+
+        replicate(id, "Replica lamp");
+        assertEquals("Replica lamp", nameSeenBy(true, id));
+        assertEquals("Primary lamp", nameSeenBy(false, id));
+
+        // The replica only gets what is replicated to it
+        productService.updateProduct(id, product("Primary lamp v2"), null);
+        assertEquals("Primary lamp v2", primaryName(id));
+        assertEquals("Replica lamp", nameSeenBy(true, id));
+    }
+
+    @Test
+    void readOnlyWorkInsideAWriteTransactionSeesItsOwnWrites() {
+        Long id = createProduct("Written lamp");
+        replicate(id, "Replica lamp");
+
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        String seen = write.execute(status -> {
+            new JdbcTemplate(dataSource).update("update products set name = ? where id = ?", "Uncommitted lamp", id);
+            // Joins the write transaction and its primary connection instead of opening one on the replica
+            return nameSeenBy(true, id);
+        });
+
+        assertEquals("Uncommitted lamp", seen);
+        assertEquals("Replica lamp", nameSeenBy(true, id));
+    }
+
+    @Test
+    void queryCachedReadsAreOnlyFilledFromThePrimary() {
+        Long id = createProduct("Versioned lamp", 4711.5);
+        // A replica lagging behind a later write, holding an older version and no product_categories table
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into products (id, name, price, description, version) values (?, 'Old lamp', 4711.5, 'Lagging', 7)",
+                id);
+        assertEquals("Old lamp", nameSeenBy(true, id));
+
+        // Called outside a transaction first, as the comment write-behind buffer does, then through the service
+        assertEquals(0L, productRepository.findVersionById(id).orElseThrow());
+        assertEquals(0L, productService.getProductVersion(id));
+        String listVersion = productService.getProductListVersion();
+        assertEquals(primaryCount(), Long.parseLong(listVersion.substring(0, listVersion.indexOf('-'))));
+        // The count and facet queries of a filter's first page would fail on the replica
+        assertEquals(1, productService.filterProducts(null, 4711.5, 4711.5, null, 10).getTotal());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhileReplicaIsDown() {
+        Long id = createProduct("Primary desk");
+        replicate(id, "Replica desk");
+
+        replicaHealthMonitor.markDown("test");
+        assertEquals("Primary desk", nameSeenBy(true, id));
+
+        replicaHealthMonitor.check();
+        assertEquals("Replica desk", nameSeenBy(true, id));
+    }
+
+    private String nameSeenBy(boolean readOnly, Long id) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("select name from products where id = ?", String.class, id));
+    }
+
+    private String primaryName(Long id) {
+        return new JdbcTemplate(primaryDataSource)
+                .queryForObject("select name from products where id = ?", String.class, id);
+    }
+
+    private static int rowsOf(DataSource database, Long id) {
+        return new JdbcTemplate(database)
+                .queryForObject("select count(*) from products where id = ?", Integer.class, id);
+    }
+
+    private void replicate(Long id, String name) {
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into products (id, name, price, description, version) values (?, ?, 30, 'Replicated', 0)",
+                id, name);
+    }
+
+    private long primaryCount() {
+        return new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from products", Long.class);
+    }
+
+    private Long createProduct(String name) {
+        return createProduct(name, 30);
+    }
+
+    private Long createProduct(String name, double price) {
+        return productService.createProduct(product(name, price)).getId();
+    }
+
+    private ProductDto product(String name) {
+        return product(name, 30);
+    }
+
+    private ProductDto product(String name, double price) {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("routing-" + System.nanoTime()).build()).getId();
+        return ProductDto.builder()
+                .name(name)
+                .description("Routed by transaction")
+                .price(price)
+                .categoryIds(List.of(categoryId))
+                .build();
+    }
+}
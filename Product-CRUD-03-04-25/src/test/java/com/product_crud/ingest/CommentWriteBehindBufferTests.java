@@ -0,0 +1,182 @@
+package com.product_crud.ingest;
+
+import com.product_crud.entity.Comment;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.repository.CommentRepository;
+import com.product_crud.repository.ProductRepository;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "comment.write-behind.enabled=true",
+        "comment.write-behind.batch-size=100",
+        "comment.write-behind.retry-backoff-ms=50"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommentWriteBehindBufferTests {
+    private static final int COMMENTS = 1000;
+    private static final long LOCK_HOLD_MILLIS = 3000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CommentWriteBehindBuffer commentWriteBehindBuffer;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void queuedCommentsAreWrittenWhenTheWriterDrainsOnStop() {
+        Long productId = createProduct();
+
+        for (int i = 0; i < COMMENTS; i++) {
+            commentWriteBehindBuffer.enqueue(productId, "Queued comment " + i);
+        }
+
+        commentWriteBehindBuffer.stop();
+        try {
+            assertEquals(COMMENTS, commentRepository.findByProductIdOrderByIdAsc(productId, Limit.unlimited()).size());
+            assertEquals(COMMENTS, productService.getProductById(productId).getCommentCount());
+            assertEquals(0, meterRegistry.get("comments.write_behind.queue.depth").gauge().value());
+        } finally {
+            commentWriteBehindBuffer.start();
+        }
+    }
+
+    @Test
+    void commentsAreValidatedBeforeTheyAreAcknowledged() throws Exception {
+        Long productId = createProduct();
+        double rejectedBefore = meterRegistry.counter("comments.write_behind.rejected").count();
+
+        mockMvc.perform(post("/api/comments/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"" + "x".repeat(256) + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.content").value("Comment content must be at most 255 characters"));
+        mockMvc.perform(post("/api/comments/" + Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"For a missing product\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/comments/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"" + "x".repeat(255) + "\"}"))
+                .andExpect(status().isAccepted());
+
+        assertEquals(0, meterRegistry.counter("comments.write_behind.rejected").count() - rejectedBefore);
+    }
+
+    @Test
+    void commentsForAProductDeletedAfterQueueingAreDropped() throws InterruptedException {
+        Long productId = createProduct();
+        double droppedBefore = meterRegistry.counter("comments.write_behind.dropped").count();
+        productService.deleteProduct(productId);
+
+        commentWriteBehindBuffer.flush(List.of(pending(productId, "Queued before the delete")));
+
+        assertEquals(1, meterRegistry.counter("comments.write_behind.dropped").count() - droppedBefore);
+        assertTrue(commentRepository.findByProductIdOrderByIdAsc(productId, Limit.unlimited()).isEmpty());
+    }
+
+    @Test
+    void aRejectedCommentCostsOnlyItselfNotTheRestOfItsBatch() throws InterruptedException {
+        Long productId = createProduct();
+        double failedBefore = meterRegistry.counter("comments.write_behind.failed").count();
+
+        // Longer than the content column, so the batch insert fails as a whole. The controller no longer lets
+        // such a comment through; a row can still be rejected for reasons only the database knows
+        commentWriteBehindBuffer.flush(List.of(
+                pending(productId, "Before the bad one"),
+                pending(productId, "x".repeat(300)),
+                pending(productId, "After the bad one")));
+
+        assertEquals(List.of("Before the bad one", "After the bad one"),
+                commentRepository.findByProductIdOrderByIdAsc(productId, Limit.unlimited()).stream()
+                        .map(Comment::getContent)
+                        .toList());
+        assertEquals(2, productService.getProductById(productId).getCommentCount());
+        assertEquals(1, meterRegistry.counter("comments.write_behind.failed").count() - failedBefore);
+    }
+
+    @Test
+    void aBatchBlockedByARowLockIsRetriedUntilItIsWritten() throws Exception {
+        Long productId = createProduct();
+        double retriedBefore = meterRegistry.counter("comments.write_behind.retried").count();
+        double failedBefore = meterRegistry.counter("comments.write_behind.failed").count();
+
+        // Holds the product row for longer than H2's lock timeout, so the first attempt fails
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productRepository.findForUpdateById(productId);
+            locked.countDown();
+            try {
+                Thread.sleep(LOCK_HOLD_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        commentWriteBehindBuffer.flush(List.of(pending(productId, "Waited for the lock")));
+        holder.join();
+
+        assertTrue(meterRegistry.counter("comments.write_behind.retried").count() > retriedBefore);
+        assertEquals(0, meterRegistry.counter("comments.write_behind.failed").count() - failedBefore);
+        assertEquals(1, productService.getProductById(productId).getCommentCount());
+    }
+
+    private Long createProduct() {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("write-behind-" + System.nanoTime()).build()).getId();
+        return productService.createProduct(ProductDto.builder()
+                .name("Write-behind product")
+                .description("Receives queued comments")
+                .price(10)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+
+    private static CommentWriteBehindBuffer.PendingComment pending(Long productId, String content) {
+        return new CommentWriteBehindBuffer.PendingComment(productId, content, Instant.now());
+    }
+}
@@ -0,0 +1,65 @@
+package com.product_crud.maintenance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// H2 has real sequences, so the table-backed ones MySQL gets are built by hand
+@SpringBootTest
+@ActiveProfiles("test")
+class IdSequenceSeederTests {
+    @Autowired
+    private IdSequenceSeeder idSequenceSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table seeded_rows (id bigint primary key)");
+        jdbcTemplate.execute("create table seeded_rows_seq (next_val bigint)");
+        jdbcTemplate.update("insert into seeded_rows_seq values (1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table seeded_rows");
+        jdbcTemplate.execute("drop table seeded_rows_seq");
+    }
+
+    @Test
+    void sequenceTableMovesPastExistingIdsOnce() {
+        jdbcTemplate.update("insert into seeded_rows values (7), (120)");
+
+        assertEquals(1, idSequenceSeeder.seed("seeded_rows_seq", "seeded_rows", "id", 50));
+        assertEquals(170L, nextVal());
+
+        assertEquals(0, idSequenceSeeder.seed("seeded_rows_seq", "seeded_rows", "id", 50));
+        assertEquals(170L, nextVal());
+    }
+
+    @Test
+    void sequenceAlreadyAheadIsLeftAlone() {
+        jdbcTemplate.update("update seeded_rows_seq set next_val = 1000");
+        jdbcTemplate.update("insert into seeded_rows values (120)");
+
+        assertEquals(0, idSequenceSeeder.seed("seeded_rows_seq", "seeded_rows", "id", 50));
+        assertEquals(1000L, nextVal());
+    }
+
+    @Test
+    void emptyTableLeavesSequenceAtItsStart() {
+        assertEquals(0, idSequenceSeeder.seed("seeded_rows_seq", "seeded_rows", "id", 50));
+        assertEquals(1L, nextVal());
+    }
+
+    private Long nextVal() {
+        return jdbcTemplate.queryForObject("select next_val from seeded_rows_seq", Long.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.product_crud.monitoring;
+
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ServiceMetricsTests {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void serviceCallsAreTimedPerMethodAndOutcome() {
+        long before = count("CategoryServiceImpl", "getAllCategories", "none");
+        categoryService.getAllCategories();
+        assertEquals(before + 1, count("CategoryServiceImpl", "getAllCategories", "none"));
+
+        long failedBefore = count("ProductServiceImpl", "getProductById", "ResourceNotFoundException");
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(Long.MAX_VALUE));
+        assertEquals(failedBefore + 1, count("ProductServiceImpl", "getProductById", "ResourceNotFoundException"));
+    }
+
+    @Test
+    void prometheusEndpointPublishesServiceHistogramsAndPoolMetrics() {
+        categoryService.getAllCategories();
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(management("/actuator/prometheus"), String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        assertTrue(scrape.getBody().contains("service_method_seconds_bucket{"));
+        assertTrue(scrape.getBody().contains("hikaricp_connections_active"));
+        assertTrue(scrape.getBody().contains("hibernate_sessions_open_total"));
+        assertTrue(scrape.getBody().contains("jvm_gc_memory_allocated_bytes_total"));
+    }
+
+    @Test
+    void actuatorIsOnlyServedOnTheManagementPortAndCannotClearCaches() {
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/actuator/metrics", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange(
+                management("/actuator/caches"), HttpMethod.DELETE, null, String.class).getStatusCode());
+    }
+
+    // Bound to 127.0.0.1 like in production
+    private String management(String path) {
+        return "http://127.0.0.1:" + managementPort + path;
+    }
+
+    private long count(String type, String method, String exception) {
+        var timer = meterRegistry.find("service.method")
+                .tags("class", type, "method", method, "exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
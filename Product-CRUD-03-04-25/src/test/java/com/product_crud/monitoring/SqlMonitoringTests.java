@@ -0,0 +1,143 @@
+package com.product_crud.monitoring;
+
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.service.CategoryService;
+import com.product_crud.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The dev profile turns on the X-Sql-* headers; a zero threshold makes every statement a slow one
+@SpringBootTest(properties = "sql.monitoring.slow-query-threshold-ms=0")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "dev"})
+@ExtendWith(OutputCaptureExtension.class)
+class SqlMonitoringTests {
+    private static final String PRODUCT_URI = "/api/products/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementsAreCountedPerRequestAndPublishedAsHeadersAndMetrics(CapturedOutput output) throws Exception {
+        Long id = createProduct();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long requestsBefore = statementSummary().count();
+        double statementsBefore = statementSummary().totalAmount();
+        double slowBefore = slowCounter().count();
+
+        // The first read queries the version and the row; the second is served from the caches
+        statistics.clear();
+        MvcResult first = mockMvc.perform(get("/api/products/" + id)).andExpect(status().isOk()).andReturn();
+        int statements = Integer.parseInt(first.getResponse().getHeader("X-Sql-Statement-Count"));
+        assertTrue(statements > 0);
+        assertEquals(statistics.getPrepareStatementCount(), statements);
+        assertTrue(Long.parseLong(first.getResponse().getHeader("X-Sql-Time-Ms")) >= 0);
+        assertTrue(Long.parseLong(first.getResponse().getHeader("X-Sql-Slowest-Ms")) >= 0);
+
+        MvcResult second = mockMvc.perform(get("/api/products/" + id)).andExpect(status().isOk()).andReturn();
+        assertEquals("0", second.getResponse().getHeader("X-Sql-Statement-Count"));
+        assertEquals("0", second.getResponse().getHeader("X-Sql-Slowest-Ms"));
+
+        assertEquals(requestsBefore + 2, statementSummary().count());
+        assertEquals(statementsBefore + statements, statementSummary().totalAmount());
+        assertTrue(sqlTimer().count() >= 2);
+        assertEquals(slowBefore + statements, slowCounter().count());
+        assertTrue(output.getOut().contains("Slow SQL ("));
+        assertTrue(output.getOut().contains("bind parameters): select"));
+        // Only the first request ran SQL, so only it is reported with its slowest statement
+        assertTrue(output.getOut().contains("Slow request SQL (GET " + PRODUCT_URI + ", " + statements + " statements, "));
+        assertEquals(1, output.getOut().split("Slow request SQL \\(GET ", -1).length - 1);
+        assertTrue(output.getOut().matches("(?s).*Slow request SQL \\([^)]*\\): select .*"));
+    }
+
+    @Test
+    void requestsOutsideTheApiAreNotMonitored() throws Exception {
+        MvcResult result = mockMvc.perform(get("/error")).andReturn();
+        assertNull(result.getResponse().getHeader("X-Sql-Statement-Count"));
+    }
+
+    @Test
+    void onlyStatementsAtOrAboveTheThresholdAreSlow(CapturedOutput output) {
+        RequestSqlStats stats = RequestSqlStats.start(50);
+        try {
+            stats.statementPrepared("select p.name from products p where p.id = ?");
+            stats.statementExecuted(49_000_000);
+            stats.statementPrepared("select p.id from products p where p.price between ? and ?");
+            stats.statementExecuted(50_000_000);
+            stats.statementPrepared("select count(*) from products");
+            stats.statementExecuted(1_000_000);
+        } finally {
+            RequestSqlStats.end();
+        }
+
+        assertEquals(3, stats.getStatementCount());
+        assertEquals(1, stats.getSlowStatementCount());
+        assertEquals(100_000_000, stats.getTotalNanos());
+        assertEquals(50_000_000, stats.getSlowestNanos());
+        assertEquals("select p.id from products p where p.price between ? and ?", stats.getSlowestSql());
+        assertTrue(output.getOut().contains(
+                "Slow SQL (50 ms, 2 bind parameters): select p.id from products p where p.price between ? and ?"));
+        assertFalse(output.getOut().contains("where p.id = ?"));
+        assertNull(RequestSqlStats.current());
+    }
+
+    private Long createProduct() {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("sql-stats-" + System.nanoTime()).build()).getId();
+        return productService.createProduct(ProductDto.builder()
+                .name("Monitored lamp")
+                .description("Counted per request")
+                .price(40)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+
+    private DistributionSummary statementSummary() {
+        return meterRegistry.summary("http.server.requests.sql.statements", "method", "GET", "uri", PRODUCT_URI);
+    }
+
+    private Timer sqlTimer() {
+        return meterRegistry.timer("http.server.requests.sql.time", "method", "GET", "uri", PRODUCT_URI);
+    }
+
+    private Counter slowCounter() {
+        return meterRegistry.counter("sql.slow.statements", "method", "GET", "uri", PRODUCT_URI);
+    }
+}
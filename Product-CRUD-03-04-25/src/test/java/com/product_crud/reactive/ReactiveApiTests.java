@@ -0,0 +1,136 @@
+package com.product_crud.reactive;
+
+import com.product_crud.ProductCrudApplication;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.CursorPageDto;
+import com.product_crud.payload.ProductDto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The test context fixes the web application type before profile files are read, so it is repeated here
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"reactive", "test"})
+class ReactiveApiTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext applicationContext;
+
+    // The reactive profile has no JPA, so the shared in-memory schema is created by a short-lived JPA context
+    @BeforeAll
+    static void createSchema() {
+        new SpringApplicationBuilder(ProductCrudApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.hibernate.ddl-auto=update")
+                .close();
+    }
+
+    @Test
+    void servedByWebFluxOnNetty() {
+        assertTrue(applicationContext.getWebServer() instanceof NettyWebServer);
+    }
+
+    @Test
+    void productLifecycle() {
+        Long first = createCategory("reactive-first-" + System.nanoTime());
+        Long second = createCategory("reactive-second-" + System.nanoTime());
+
+        ProductDto created = webTestClient.post().uri("/api/products")
+                .bodyValue(product(List.of(first)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDto.class).returnResult().getResponseBody();
+        Long id = created.getId();
+
+        ProductDto updated = webTestClient.put().uri("/api/products/{id}", id)
+                .bodyValue(product(List.of(second)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class).returnResult().getResponseBody();
+        assertEquals(List.of(second), updated.getCategoryIds());
+        assertEquals(1L, updated.getVersion());
+
+        // A product without comments has an empty first page
+        webTestClient.get().uri("/api/comments/{id}?limit=10", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.content.length()").isEqualTo(0);
+
+        webTestClient.post().uri("/api/comments/{id}", id)
+                .bodyValue(CommentDto.builder().content("Reactive comment").build())
+                .exchange()
+                .expectStatus().isOk();
+        CursorPageDto<CommentDto> comments = webTestClient.get().uri("/api/comments/{id}?limit=10", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPageDto<CommentDto>>() {
+                }).returnResult().getResponseBody();
+        assertEquals(1, comments.getContent().size());
+
+        ProductDto commented = webTestClient.get().uri("/api/products/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class).returnResult().getResponseBody();
+        assertEquals(1, commented.getCommentCount());
+        assertEquals(2L, commented.getVersion());
+
+        List<ProductDto> streamed = webTestClient.get().uri("/api/products")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductDto.class).getResponseBody().collectList().block();
+        assertTrue(streamed.stream().anyMatch(product -> product.getId().equals(id)));
+
+        webTestClient.delete().uri("/api/products/{id}", id).exchange().expectStatus().isNoContent();
+        webTestClient.get().uri("/api/products/{id}", id).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/comments/{id}", id).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void invalidProductIsRejectedWithFieldErrors() {
+        Map<String, String> errors = webTestClient.post().uri("/api/products")
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(new ParameterizedTypeReference<Map<String, String>>() {
+                }).returnResult().getResponseBody();
+        assertEquals("Product name is required", errors.get("name"));
+    }
+
+    private Long createCategory(String name) {
+        return webTestClient.post().uri("/api/categories")
+                .bodyValue(CategoryDto.builder().name(name).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CategoryDto.class).returnResult().getResponseBody().getId();
+    }
+
+    private ProductDto product(List<Long> categoryIds) {
+        return ProductDto.builder()
+                .name("Reactive product")
+                .description("Served by WebFlux and R2DBC")
+                .price(12.5)
+                .categoryIds(categoryIds)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.product_crud.reactive.service.impl;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SequenceIdGeneratorTests {
+    @Test
+    void everySubscriptionTakesItsOwnId() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///sequence_id_generator?options=DB_CLOSE_DELAY=-1");
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("create sequence test_seq start with 1 increment by 50").then().block();
+        SequenceIdGenerator generator = new SequenceIdGenerator(databaseClient,
+                TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)), connectionFactory);
+
+        // Like Hibernate's pooled optimizer, the first value is a block of one and the second starts a block of 50
+        assertEquals(1L, generator.nextId("test_seq").block());
+        assertEquals(2L, generator.nextId("test_seq").block());
+
+        // Assembling without subscribing takes no id, and a resubscription does not reuse one
+        generator.nextId("test_seq");
+        Mono<Long> next = generator.nextId("test_seq");
+        assertEquals(3L, next.block());
+        assertEquals(4L, next.block());
+    }
+}
@@ -0,0 +1,159 @@
+package com.product_crud.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvertedIndexTests {
+    @Test
+    void ranksNameMatchesAboveDescriptionMatchesAndRareTermsAboveCommonOnes() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Office chair", "Ergonomic seat for a gaming setup");
+        index.put(2, "Gaming laptop", "Fast laptop");
+        index.put(3, "Gaming mouse", "Wireless gaming mouse");
+        index.put(4, "Desk", "Standing desk");
+
+        // Name weighs 3, description 1: 3 + 1 beats 3 beats 1
+        assertEquals(List.of(3L, 2L, 1L), index.search("gaming", 10));
+        assertEquals(List.of(3L), index.search("gaming", 1));
+
+        // Same weights everywhere: the rarer "usbc" outranks "usb", and ties go to the lower id
+        index.put(10, "Cable", "Usb");
+        index.put(11, "Cable", "Usb");
+        index.put(12, "Cable", "Usbc");
+        assertEquals(List.of(12L, 10L, 11L), index.search("cable usb", 10));
+    }
+
+    @Test
+    void everyTermMustMatchAndOnlyTheLastOneAsAPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Gaming laptop", "Fast");
+        index.put(2, "Gaming mouse", "Wireless");
+        index.put(3, "Office laptop", "Light");
+
+        assertEquals(List.of(1L), index.search("gaming lap", 10));
+        assertEquals(List.of(), index.search("gam laptop", 10));
+        assertEquals(List.of(1L, 3L), index.search("LAPTOP", 10));
+        assertEquals(List.of(), index.search("gaming keyboard", 10));
+        assertEquals(List.of(), index.search(" ,;", 10));
+    }
+
+    @Test
+    void allPrefixExpansionsAreMergedAndRanked() {
+        InvertedIndex index = new InvertedIndex();
+        for (int i = 0; i < 40; i++) {
+            index.put(i, "Item", "term" + i);
+        }
+        // Sorts after every "term<n>" but matches two expansions of the prefix
+        index.put(1_000, "Item", "termz termzz");
+
+        List<Long> hits = index.search("term", 500);
+        assertEquals(41, hits.size());
+        assertEquals(1_000L, hits.get(0));
+        assertEquals(0L, hits.get(1));
+    }
+
+    @Test
+    void shortLastTermsOnlyMatchWholeWords() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Tv stand", "Oak");
+        index.put(2, "Tvs", "Two of them");
+        index.put(3, "Stand", "For a tv");
+
+        assertEquals(List.of(1L, 3L), index.search("tv", 10));
+        assertEquals(List.of(), index.search("t", 10));
+        assertEquals(List.of(1L), index.search("oak tv", 10));
+        assertEquals(List.of(2L), index.search("tvs", 10));
+    }
+
+    @Test
+    void aPrefixExpandsToABoundedNumberOfTermsInTermOrder() {
+        InvertedIndex index = new InvertedIndex();
+        int terms = InvertedIndex.MAX_PREFIX_EXPANSIONS * 4;
+        for (int i = 0; i < terms; i++) {
+            index.put(i, "Sku", String.format("sku%04d", i));
+        }
+
+        List<Long> hits = index.search("sku0", terms);
+        assertEquals(InvertedIndex.MAX_PREFIX_EXPANSIONS, hits.size());
+        assertEquals(LongStream.range(0, InvertedIndex.MAX_PREFIX_EXPANSIONS).boxed().toList(),
+                hits.stream().sorted().toList());
+        // A longer prefix reaches the terms the short one cut off
+        assertEquals(List.of((long) terms - 1), index.search(String.format("sku%04d", terms - 1), 10));
+    }
+
+    @Test
+    void onlyTheFirstCandidatesOfTheRarestTermAreRanked() {
+        InvertedIndex index = new InvertedIndex();
+        int products = InvertedIndex.MAX_CANDIDATES * 3;
+        for (int id = 1; id <= products; id++) {
+            index.put(id, "Lamp", "Scanner");
+        }
+        // Ranks first on its own, but lies beyond the candidates of a common term
+        index.put(products, "Lamp lamp tyrell", "Scanner");
+
+        List<Long> lamps = index.search("lamp", InvertedIndex.MAX_CANDIDATES * 2);
+        assertEquals(InvertedIndex.MAX_CANDIDATES, lamps.size());
+        assertEquals(1L, lamps.get(0));
+        assertEquals(List.of(1L), index.search("lam", 1));
+
+        // A rare term drives the candidates, so its products are found however high their ids
+        assertEquals(List.of((long) products), index.search("tyrell scanner", 10));
+        assertEquals(List.of((long) products), index.search("scanner tyr", 10));
+    }
+
+    @Test
+    void updateReplacesTheOldTermsOfAProduct() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Gaming laptop", "Fast");
+        index.put(2, "Office laptop", "Light");
+
+        index.put(1, "Gaming desktop", "Tower");
+
+        assertEquals(List.of(2L), index.search("laptop", 10));
+        assertEquals(List.of(1L), index.search("desk", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void removedProductsNoLongerMatchAndOutOfOrderIdsStaySorted() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(30, "Lamp", "Desk lamp");
+        index.put(10, "Lamp", "Floor lamp");
+        index.put(20, "Lamp", "Wall lamp");
+
+        assertEquals(List.of(10L, 20L, 30L), index.search("lamp", 10));
+        assertEquals(List.of(30L), index.search("lamp desk", 10));
+
+        index.remove(20);
+        index.remove(30);
+        index.remove(99);
+
+        assertEquals(List.of(10L), index.search("lamp", 10));
+        assertEquals(List.of(), index.search("desk", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void postingsStayConsistentThroughOutOfOrderAddsRemovesAndReAdds() {
+        InvertedIndex index = new InvertedIndex();
+        // Descending ids all go through the pending list and its merges
+        for (long id = 100; id >= 1; id--) {
+            index.put(id, "Lamp", id % 2 == 0 ? "Even" : "Odd");
+        }
+        for (long id = 2; id <= 100; id += 2) {
+            index.remove(id);
+        }
+        index.put(4, "Lamp", "Even again");
+        index.put(7, "Lamp", "Odd turned even");
+
+        List<Long> odd = index.search("odd", 100);
+        assertEquals(50, odd.size());
+        assertEquals(List.of(4L, 7L), index.search("even", 100));
+        assertEquals(List.of(1L, 3L, 4L, 5L), index.search("lamp", 100).subList(0, 4));
+        assertEquals(51, index.search("lamp", 100).size());
+    }
+}
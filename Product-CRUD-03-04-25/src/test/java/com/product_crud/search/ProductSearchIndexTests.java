@@ -0,0 +1,51 @@
+package com.product_crud.search;
+
+import com.product_crud.entity.Product;
+import com.product_crud.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSearchIndexTests {
+    @Test
+    void rebuildKeepsServingTheOldIndexAndReplaysChangesMadeMeanwhile() {
+        ProductSearchIndex[] holder = new ProductSearchIndex[1];
+        Stream<Product> table = Stream.of(product(1, "Desk lamp"), product(2, "Floor lamp"), product(3, "Wall lamp"))
+                .peek(product -> {
+                    if (product.getId() == 2) {
+                        ProductSearchIndex searchIndex = holder[0];
+                        // Mid-scan the live index still answers, and writes go through without waiting
+                        assertEquals(List.of(10L), searchIndex.search("lamp", 10));
+                        searchIndex.index(11L, "Reading lamp", "Clip-on");
+                        searchIndex.remove(1L);
+                    }
+                });
+        ProductSearchIndex searchIndex = new ProductSearchIndex(repositoryStreaming(table), null);
+        holder[0] = searchIndex;
+        searchIndex.index(10L, "Old lamp", "Indexed before the rebuild");
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of(2L, 3L, 11L), searchIndex.search("lamp", 10));
+        assertEquals(List.of(), searchIndex.search("old", 10));
+    }
+
+    private static Product product(long id, String name) {
+        return Product.builder().id(id).name(name).description("Lamp").build();
+    }
+
+    // Only streamAllBy is called; a rebuild of fewer than a chunk never touches the EntityManager
+    private static ProductRepository repositoryStreaming(Stream<Product> products) {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("streamAllBy")) {
+                        return products;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
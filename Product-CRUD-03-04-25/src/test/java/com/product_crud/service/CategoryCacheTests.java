@@ -0,0 +1,151 @@
+package com.product_crud.service;
+
+import com.product_crud.config.CacheConfig;
+import com.product_crud.exception.ResourceNotFoundException;
+import com.product_crud.payload.CategoryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryCacheTests {
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache categories;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        Long id = create("cached");
+        categoryService.getAllCategories();
+        double hitsBefore = cacheHits();
+
+        statistics.clear();
+        assertEquals(id, categoryService.getCategoryById(id).getId());
+        assertTrue(categoryService.getAllCategories().stream().anyMatch(category -> category.getId().equals(id)));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, cacheHits() - hitsBefore);
+    }
+
+    @Test
+    void writesReplaceOrEvictTheCachedEntries() {
+        Long id = create("renamed");
+        categoryService.getAllCategories();
+
+        categoryService.updateCategory(id, CategoryDto.builder().name("renamed-again-" + System.nanoTime()).build());
+        assertTrue(categoryService.getCategoryById(id).getName().startsWith("renamed-again-"));
+        assertTrue(categoryService.getAllCategories().stream()
+                .anyMatch(category -> category.getName().startsWith("renamed-again-")));
+
+        categoryService.deleteCategory(id);
+        assertNull(categories.get(id));
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryById(id));
+        assertTrue(categoryService.getAllCategories().stream().noneMatch(category -> category.getId().equals(id)));
+    }
+
+    @Test
+    void evictionWaitsForTheCommitSoAConcurrentReadCannotRecacheTheRow() {
+        Long id = create("deleted");
+        Long other = create("bulk-deleted");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            categoryService.deleteCategory(id);
+            categoryService.deleteCategories(List.of(other));
+            // Before the commit another request still sees both rows; it must not put them back after it
+            CompletableFuture.runAsync(() -> {
+                categoryService.getCategoryById(id);
+                categoryService.findExistingIds(List.of(other));
+            }).join();
+            assertNotNull(categories.get(id));
+            assertNotNull(categories.get(other));
+        });
+
+        assertNull(categories.get(id));
+        assertNull(categories.get(other));
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryById(id));
+    }
+
+    @Test
+    void rolledBackDeleteKeepsTheCachedEntry() {
+        Long id = create("kept");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            categoryService.deleteCategory(id);
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(categories.get(id));
+        assertEquals(id, categoryService.getCategoryById(id).getId());
+    }
+
+    @Test
+    void findExistingIdsQueriesOnlyTheIdsItHasNotCached() {
+        Long cached = create("known");
+        Long evicted = create("unknown");
+        categories.evict(evicted);
+
+        statistics.clear();
+        assertEquals(Set.of(cached), categoryService.findExistingIds(List.of(cached)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        assertEquals(Set.of(cached, evicted), categoryService.findExistingIds(List.of(cached, evicted, Long.MAX_VALUE)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(Set.of(cached, evicted), categoryService.findExistingIds(List.of(cached, evicted)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Long create(String name) {
+        return categoryService.createCategory(CategoryDto.builder().name(name + "-" + System.nanoTime()).build()).getId();
+    }
+
+    private double cacheHits() {
+        return meterRegistry.find("cache.gets").tag("result", "hit").functionCounters().stream()
+                .filter(counter -> Set.of(CacheConfig.CATEGORIES, CacheConfig.CATEGORY_LIST)
+                        .contains(counter.getId().getTag("cache")))
+                .collect(Collectors.summingDouble(counter -> counter.count()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.product_crud.service;
+
+import com.product_crud.maintenance.CommentStatsReconciler;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CommentStatsTests {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentStatsReconciler commentStatsReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Long categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("comment-stats-" + System.nanoTime()).build()).getId();
+        productId = productService.createProduct(ProductDto.builder()
+                .name("Commented product")
+                .description("Collects comments")
+                .price(10)
+                .categoryIds(List.of(categoryId))
+                .build()).getId();
+    }
+
+    @Test
+    void commentCountFollowsAddsAndDeletes() {
+        Long first = addComment("first");
+        Long second = addComment("second");
+        Long third = addComment("third");
+
+        ProductDto product = productService.getProductById(productId);
+        assertEquals(3, product.getCommentCount());
+        assertNotNull(product.getLastCommentAt());
+
+        commentService.deleteComment(first);
+        assertEquals(2, productService.getProductById(productId).getCommentCount());
+
+        commentService.deleteComments(List.of(second, third));
+        product = productService.getProductById(productId);
+        assertEquals(0, product.getCommentCount());
+        assertNull(product.getLastCommentAt());
+    }
+
+    @Test
+    void deletingTheNewestCommentMovesLastCommentAtBack() {
+        Long first = addComment("first");
+        Long second = addComment("second");
+        jdbcTemplate.update("update comments set created_at = timestamp '2025-01-01 10:00:00' where id = ?", first);
+        jdbcTemplate.update("update comments set created_at = timestamp '2025-01-02 10:00:00' where id = ?", second);
+
+        commentService.deleteComment(second);
+        ProductDto product = productService.getProductById(productId);
+        assertEquals(1, product.getCommentCount());
+        assertEquals(jdbcTemplate.queryForObject("select created_at from comments where id = ?", Instant.class, first),
+                product.getLastCommentAt());
+
+        commentService.deleteComment(first);
+        product = productService.getProductById(productId);
+        assertEquals(0, product.getCommentCount());
+        assertNull(product.getLastCommentAt());
+    }
+
+    @Test
+    void reconcilerRepairsDrift() {
+        addComment("first");
+        addComment("second");
+        jdbcTemplate.update("update products set comment_count = 99, last_comment_at = null where id = ?", productId);
+
+        assertEquals(1, commentStatsReconciler.reconcile());
+
+        ProductDto product = productService.getProductById(productId);
+        assertEquals(2, product.getCommentCount());
+        assertNotNull(product.getLastCommentAt());
+        assertEquals(0, commentStatsReconciler.reconcile());
+    }
+
+    private Long addComment(String content) {
+        return commentService.addCommentToProduct(productId, CommentDto.builder().content(content).build()).getId();
+    }
+}
@@ -0,0 +1,165 @@
+package com.product_crud.service;
+
+import com.product_crud.exception.BadRequestException;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CategoryFacetDto;
+import com.product_crud.payload.FacetedProductPageDto;
+import com.product_crud.payload.ProductDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductFilterTests {
+    // Price bands far from those of the other tests, one per test, so each range sees only its own products
+    private static final AtomicInteger BANDS = new AtomicInteger();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private double basePrice;
+    private Long books;
+    private Long games;
+    private Long toys;
+
+    @BeforeEach
+    void setUp() {
+        basePrice = 1_000_000 + BANDS.incrementAndGet() * 1_000;
+        books = category("books");
+        games = category("games");
+        toys = category("toys");
+
+        // Prices base+1..base+10: 1-5 are books, 4-8 also games, 9-10 only toys
+        for (int i = 1; i <= 10; i++) {
+            List<Long> categoryIds = new ArrayList<>();
+            if (i <= 5) {
+                categoryIds.add(books);
+            }
+            if (i >= 4 && i <= 8) {
+                categoryIds.add(games);
+            }
+            if (i >= 9) {
+                categoryIds.add(toys);
+            }
+            productService.createProduct(ProductDto.builder()
+                    .name("Filtered " + i)
+                    .description("Costs " + i)
+                    .price(basePrice + i)
+                    .categoryIds(categoryIds)
+                    .build());
+        }
+    }
+
+    @Test
+    void filtersByPriceRangeAndAnyOfTheCategories() {
+        FacetedProductPageDto byPrice = productService.filterProducts(null, basePrice + 3, basePrice + 6, null, 20);
+        assertEquals(List.of("Filtered 3", "Filtered 4", "Filtered 5", "Filtered 6"), names(byPrice));
+        assertEquals(4L, byPrice.getTotal());
+
+        FacetedProductPageDto byCategory = productService.filterProducts(
+                List.of(books, toys), basePrice + 1, basePrice + 10, null, 20);
+        assertEquals(List.of("Filtered 1", "Filtered 2", "Filtered 3", "Filtered 4", "Filtered 5",
+                "Filtered 9", "Filtered 10"), names(byCategory));
+        assertEquals(7L, byCategory.getTotal());
+
+        FacetedProductPageDto both = productService.filterProducts(
+                List.of(games), basePrice + 7, basePrice + 10, null, 20);
+        assertEquals(List.of("Filtered 7", "Filtered 8"), names(both));
+        assertEquals(2L, both.getTotal());
+    }
+
+    @Test
+    void facetsCountThePriceRangeRegardlessOfTheCategoryFilter() {
+        FacetedProductPageDto page = productService.filterProducts(
+                List.of(toys), basePrice + 4, basePrice + 9, null, 20);
+
+        Map<Long, Long> facets = page.getCategoryFacets().stream()
+                .collect(Collectors.toMap(CategoryFacetDto::getCategoryId, CategoryFacetDto::getCount));
+        assertEquals(2L, facets.get(books));
+        assertEquals(5L, facets.get(games));
+        assertEquals(1L, facets.get(toys));
+        assertEquals(1L, page.getTotal());
+    }
+
+    @Test
+    void cursorWalksEveryMatchAndOnlyTheFirstPageCarriesTotalAndFacets() {
+        List<Long> categoryIds = List.of(books, games, toys);
+        FacetedProductPageDto first = productService.filterProducts(
+                categoryIds, basePrice + 1, basePrice + 10, null, 4);
+        assertEquals(10L, first.getTotal());
+        assertNotNull(first.getCategoryFacets());
+
+        List<String> names = new ArrayList<>(names(first));
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            Long after = Long.valueOf(cursor);
+            FacetedProductPageDto next = productService.filterProducts(
+                    categoryIds, basePrice + 1, basePrice + 10, after, 4);
+            assertNull(next.getTotal());
+            assertNull(next.getCategoryFacets());
+            names.addAll(names(next));
+            cursor = next.getNextCursor();
+        }
+        assertEquals(10, names.size());
+        assertEquals("Filtered 1", names.get(0));
+        assertEquals("Filtered 10", names.get(9));
+    }
+
+    @Test
+    void laterPagesSkipTheCountAndFacetQueries() {
+        List<Long> categoryIds = List.of(books, games);
+        FacetedProductPageDto first = productService.filterProducts(
+                categoryIds, basePrice + 1, basePrice + 10, null, 3);
+        Long after = Long.valueOf(first.getNextCursor());
+
+        // The page itself plus the category ids of its products
+        assertEquals(2, statementsFor(() -> productService.filterProducts(
+                categoryIds, basePrice + 1, basePrice + 10, after, 3)));
+    }
+
+    @Test
+    void rejectsAnInvertedPriceRange() {
+        assertThrows(BadRequestException.class,
+                () -> productService.filterProducts(null, basePrice + 5, basePrice + 1, null, 20));
+    }
+
+    private Long category(String name) {
+        return categoryService.createCategory(
+                CategoryDto.builder().name(name + "-" + System.nanoTime()).build()).getId();
+    }
+
+    private static List<String> names(FacetedProductPageDto page) {
+        return page.getContent().stream().map(ProductDto::getName).collect(Collectors.toList());
+    }
+
+    private long statementsFor(Supplier<?> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,190 @@
+package com.product_crud.service;
+
+import com.product_crud.payload.BulkUpdateResultDto;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.PriceUpdateDto;
+import com.product_crud.payload.ProductDto;
+import com.product_crud.payload.ProductPatchDto;
+import com.product_crud.payload.ProductSort;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductQueryCountTests {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> categoryIds;
+
+    @BeforeEach
+    void setUp() {
+        categoryIds = List.of(
+                categoryService.createCategory(CategoryDto.builder().name("query-count-" + System.nanoTime()).build()).getId(),
+                categoryService.createCategory(CategoryDto.builder().name("query-count-" + System.nanoTime()).build()).getId());
+    }
+
+    @Test
+    void listingProductsIssuesConstantStatementCount() {
+        createProducts(5);
+        long fewProducts = statementsFor(productService::getAllProducts);
+
+        createProducts(50);
+        long manyProducts = statementsFor(productService::getAllProducts);
+
+        assertEquals(2, fewProducts);
+        assertEquals(fewProducts, manyProducts);
+    }
+
+    @Test
+    void productPageIssuesConstantStatementCount() {
+        createProducts(60);
+
+        long smallPage = statementsFor(() -> productService.getProductsPage(null, 5, ProductSort.ID));
+        long largePage = statementsFor(() -> productService.getProductsPage(null, 50, ProductSort.ID));
+
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void readingOneProductIssuesSingleStatement() {
+        Long id = productService.createProduct(product("Single")).getId();
+
+        assertEquals(1, statementsFor(() -> productService.getProductById(id)));
+    }
+
+    @Test
+    void replacingOneCategoryTouchesOnlyThatCategorysJoinRows() {
+        List<Long> manyCategoryIds = new ArrayList<>(categoryIds);
+        for (int i = 0; i < 8; i++) {
+            manyCategoryIds.add(createCategory());
+        }
+        Long fewId = productService.createProduct(product("Few categories")).getId();
+        Long manyId = productService.createProduct(product("Many categories", manyCategoryIds)).getId();
+        Long replacement = createCategory();
+
+        long fewCategories = statementsFor(() -> productService.updateProduct(fewId,
+                product("Few categories", List.of(categoryIds.get(0), replacement)), null));
+        assertEquals(0, statistics().getCollectionRecreateCount());
+
+        List<Long> swapped = new ArrayList<>(manyCategoryIds.subList(1, manyCategoryIds.size()));
+        swapped.add(replacement);
+        long manyCategories = statementsFor(() -> productService.updateProduct(manyId,
+                product("Many categories", swapped), null));
+        assertEquals(0, statistics().getCollectionRecreateCount());
+
+        // Category collection load (the product itself is cached), one join row deleted, one inserted, the version bump
+        assertEquals(4, fewCategories);
+        assertEquals(fewCategories, manyCategories);
+    }
+
+    @Test
+    void patchingThePriceWritesOnlyTheProductRow() {
+        Long id = productService.createProduct(product("Patched")).getId();
+
+        long statements = statementsFor(() -> productService.patchProduct(id,
+                ProductPatchDto.builder().price(12.5).build(), null));
+
+        assertEquals(2, statements);
+        assertEquals(1, statistics().getEntityUpdateCount());
+        assertEquals(0, statistics().getCollectionUpdateCount());
+    }
+
+    @Test
+    void repricingPreparesOneStatementForAnyNumberOfProducts() {
+        List<Long> few = createProductIds(10);
+        List<Long> many = createProductIds(120);
+
+        BulkUpdateResultDto[] result = new BulkUpdateResultDto[1];
+        long fewProducts = statementsFor(() -> result[0] = productService.updatePrices(reprice(few)));
+        assertEquals(5, result[0].getUpdated());
+
+        long manyProducts = statementsFor(() -> result[0] = productService.updatePrices(reprice(many)));
+        assertEquals(120, result[0].getRequested());
+        assertEquals(60, result[0].getUpdated());
+
+        assertEquals(1, fewProducts);
+        assertEquals(fewProducts, manyProducts);
+    }
+
+    @Test
+    void repricedProductsAreNotServedStaleFromTheCache() {
+        List<Long> ids = createProductIds(2);
+        ProductDto before = productService.getProductById(ids.get(1));
+
+        productService.updatePrices(reprice(ids));
+
+        ProductDto after = productService.getProductById(ids.get(1));
+        assertEquals(11, after.getPrice());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(10, productService.getProductById(ids.get(0)).getPrice());
+    }
+
+    private void createProducts(int count) {
+        productService.importProducts(IntStream.range(0, count)
+                .mapToObj(i -> product("Product " + i))
+                .collect(Collectors.toList()));
+    }
+
+    private List<Long> createProductIds(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> productService.createProduct(product("Product " + i)).getId())
+                .collect(Collectors.toList());
+    }
+
+    // Every other product gets a new price; the rest keep 10
+    private static List<PriceUpdateDto> reprice(List<Long> ids) {
+        return IntStream.range(0, ids.size())
+                .mapToObj(i -> new PriceUpdateDto(ids.get(i), i % 2 == 0 ? 10 : 11))
+                .collect(Collectors.toList());
+    }
+
+    private Long createCategory() {
+        return categoryService.createCategory(CategoryDto.builder().name("query-count-" + System.nanoTime()).build()).getId();
+    }
+
+    private ProductDto product(String name) {
+        return product(name, categoryIds);
+    }
+
+    private ProductDto product(String name, List<Long> categoryIds) {
+        return ProductDto.builder()
+                .name(name)
+                .description("Description of " + name)
+                .price(10)
+                .categoryIds(categoryIds)
+                .build();
+    }
+
+    private long statementsFor(Supplier<?> call) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
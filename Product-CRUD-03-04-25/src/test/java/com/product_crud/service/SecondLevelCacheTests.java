@@ -0,0 +1,140 @@
+package com.product_crud.service;
+
+import com.product_crud.entity.Category;
+import com.product_crud.entity.Product;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.CommentDto;
+import com.product_crud.payload.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryService.createCategory(
+                CategoryDto.builder().name("l2-" + System.nanoTime()).build()).getId();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        Long id = productService.createProduct(product("Cached")).getId();
+        productService.getProductById(id);
+        productService.getProductVersion(id);
+
+        assertEquals(0, statementsFor(() -> productService.getProductById(id)));
+        assertEquals(0, statementsFor(() -> productService.getProductVersion(id)));
+        assertEquals(List.of(categoryId), productService.getProductById(id).getCategoryIds());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.hit.ratio")
+                .tag("region", "products").gauge().value() > 0);
+    }
+
+    @Test
+    void writesAreVisibleToTheNextRead() {
+        ProductDto created = productService.createProduct(product("Before"));
+        Long id = created.getId();
+        productService.getProductById(id);
+
+        ProductDto changed = product("After");
+        changed.setPrice(20);
+        productService.updateProduct(id, changed, created.getVersion());
+        ProductDto updated = productService.getProductById(id);
+        assertEquals("After", updated.getName());
+        assertEquals(updated.getVersion(), productService.getProductVersion(id));
+
+        // The comment summary is written through the managed product, which refreshes its cache entry
+        commentService.addCommentToProduct(id, CommentDto.builder().content("Fresh comment").build());
+        ProductDto commented = productService.getProductById(id);
+        assertEquals(1, commented.getCommentCount());
+        assertEquals(commented.getVersion(), productService.getProductVersion(id));
+    }
+
+    @Test
+    void commentsLeaveOtherCachedProductsAndCategoriesInTheCache() {
+        Long commented = productService.createProduct(product("Commented")).getId();
+        Long unrelated = productService.createProduct(product("Unrelated")).getId();
+        productService.getProductById(commented);
+        productService.getProductById(unrelated);
+        loadCategory();
+
+        Long first = commentService.addCommentToProduct(commented,
+                CommentDto.builder().content("First").build()).getId();
+        Long second = commentService.addCommentToProduct(commented,
+                CommentDto.builder().content("Second").build()).getId();
+        commentService.deleteComment(first);
+        assertCached(unrelated);
+
+        // The bulk delete recounts with a native UPDATE limited to the products table
+        commentService.deleteComments(List.of(second));
+        assertTrue(cache().contains(Category.class, categoryId));
+        assertEquals(0, productService.getProductById(commented).getCommentCount());
+    }
+
+    private void assertCached(Long productId) {
+        assertTrue(cache().contains(Product.class, productId));
+        assertTrue(cache().contains(Category.class, categoryId));
+        assertEquals(0, statementsFor(() -> productService.getProductById(productId)));
+    }
+
+    private void loadCategory() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.find(Category.class, categoryId);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+
+    private ProductDto product(String name) {
+        return ProductDto.builder()
+                .name(name)
+                .description("Description of " + name)
+                .price(10)
+                .categoryIds(List.of(categoryId))
+                .build();
+    }
+
+    private long statementsFor(Supplier<?> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
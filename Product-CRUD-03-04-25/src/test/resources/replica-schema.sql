@@ -0,0 +1,10 @@
+-- The products table as the replica sees it in ReadWriteRoutingTests; Hibernate only creates the primary's schema
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    price FLOAT(53) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL,
+    comment_count BIGINT DEFAULT 0 NOT NULL,
+    last_comment_at TIMESTAMP(6) WITH TIME ZONE
+);
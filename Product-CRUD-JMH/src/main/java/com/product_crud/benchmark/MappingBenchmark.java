@@ -0,0 +1,81 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.entity.Category;
+import com.product_crud.entity.Product;
+import com.product_crud.mapper.CategoryMapper;
+import com.product_crud.mapper.ProductMapper;
+import com.product_crud.payload.CategoryDto;
+import com.product_crud.payload.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Entity-to-DTO mapping as done on every read: Lombok builders plus the category id collector
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    @Param({"1", "5", "20"})
+    private int categoryCount;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private Product product;
+    private List<Long> categoryIds;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        Set<Category> categories = LongStream.rangeClosed(1, categoryCount)
+                .mapToObj(id -> Category.builder().id(id).name("Category " + id).build())
+                .collect(Collectors.toCollection(HashSet::new));
+        product = Product.builder()
+                .id(42L)
+                .name("Gaming Laptop")
+                .description("16 inch gaming laptop with a dedicated graphics card")
+                .price(1500.0)
+                .version(3L)
+                .commentCount(12)
+                .lastCommentAt(Instant.parse("2025-04-03T10:15:30Z"))
+                .categories(categories)
+                .build();
+        categoryIds = categories.stream().map(Category::getId).collect(Collectors.toList());
+        category = categories.iterator().next();
+    }
+
+    // Single-product read: streams the categories into an id list, then builds the DTO
+    @Benchmark
+    public ProductDto productWithCategories() {
+        return productMapper.toDto(product);
+    }
+
+    // List and page reads: category ids come pre-grouped from one join-table query
+    @Benchmark
+    public ProductDto productWithGroupedCategoryIds() {
+        return productMapper.toDto(product, categoryIds);
+    }
+
+    @Benchmark
+    public CategoryDto category() {
+        return categoryMapper.toDto(category);
+    }
+}
@@ -0,0 +1,86 @@
+package com.product_crud.benchmark;
+
+import com.product_crud.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Product search over a catalog of a million products, as served by GET /api/products/search.
+// Names draw words from Zipf-like lists so common terms have posting lists of hundreds of thousands
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final String[] BRANDS = {"acme", "globex", "initech", "umbrella", "stark", "wayne", "tyrell", "cyberdyne"};
+    private static final String[] NOUNS = {"laptop", "lamp", "mouse", "keyboard", "monitor", "chair", "desk", "headset",
+            "cable", "charger", "speaker", "camera", "router", "tablet", "printer", "scanner"};
+    private static final String[] ADJECTIVES = {"gaming", "wireless", "portable", "ergonomic", "compact", "premium",
+            "budget", "silent", "smart", "rugged", "slim", "classic"};
+
+    @Param({"1000000"})
+    private int documents;
+
+    private InvertedIndex index;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        index = new InvertedIndex();
+        for (long id = 1; id <= documents; id++) {
+            index.put(id, name(id), description());
+        }
+    }
+
+    @Benchmark
+    public List<Long> search(Query query) {
+        return index.search(query.text, 20);
+    }
+
+    // An update of an existing product: old postings out, new ones in, inside the large posting lists
+    @Benchmark
+    public InvertedIndex update() {
+        long id = 1 + random.nextInt(documents);
+        index.put(id, name(id), description());
+        return index;
+    }
+
+    private String name(long id) {
+        return pick(BRANDS) + " " + pick(ADJECTIVES) + " " + pick(NOUNS) + " " + "sku" + id;
+    }
+
+    private String description() {
+        return "A " + pick(ADJECTIVES) + " " + pick(NOUNS) + " that works with any " + pick(NOUNS);
+    }
+
+    // Skewed towards the start of each list, so the first words are far more common than the last
+    private String pick(String[] words) {
+        double skewed = random.nextDouble() * random.nextDouble();
+        return words[(int) (skewed * words.length)];
+    }
+
+    // Its own state so only search runs once per query
+    @State(Scope.Benchmark)
+    public static class Query {
+        // Common exact term plus a prefix, a rare exact term, a prefix of every product's sku term,
+        // and a one-letter term that is too short to expand
+        @Param({"gaming lap", "tyrell scanner", "sku", "s"})
+        private String text;
+    }
+}
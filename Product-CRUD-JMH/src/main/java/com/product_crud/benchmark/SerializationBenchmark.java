@@ -0,0 +1,65 @@
+package com.product_crud.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.product_crud.config.SparseFieldsConfig;
+import com.product_crud.payload.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// JSON encoding of a product list response, with the mapper configured like the application's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<ProductDto> products;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new SparseFieldsConfig().sparseFieldsCustomizer().customize(builder);
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ProductDto.class));
+        products = IntStream.range(0, size)
+                .mapToObj(i -> ProductDto.builder()
+                        .id((long) i)
+                        .name("Product " + i)
+                        .description("Description of product " + i + ", long enough to look like a real one")
+                        .price(10 + i)
+                        .categoryIds(List.of(1L, 2L, 3L))
+                        .version(1L)
+                        .commentCount(i % 7)
+                        .lastCommentAt(Instant.parse("2025-04-03T10:15:30Z"))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products);
+    }
+}
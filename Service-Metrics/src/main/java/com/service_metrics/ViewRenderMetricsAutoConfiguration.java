@@ -0,0 +1,61 @@
+package com.service_metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+// Times Thymeleaf rendering as view.render, tagged with the template name. postHandle runs just before the view
+// renders and afterCompletion just after, so the timer excludes the controller and the services it calls
+@AutoConfiguration
+@ConditionalOnClass(name = "org.thymeleaf.spring6.SpringTemplateEngine")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ViewRenderMetricsAutoConfiguration implements WebMvcConfigurer {
+    private static final String RENDER_START = ViewRenderMetricsAutoConfiguration.class.getName() + ".renderStart";
+    private static final String VIEW_NAME = ViewRenderMetricsAutoConfiguration.class.getName() + ".viewName";
+
+    private final MeterRegistry meterRegistry;
+
+    public ViewRenderMetricsAutoConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                   ModelAndView modelAndView) {
+                // Redirects and forwards carry ids in their view names and render no template
+                if (modelAndView != null && modelAndView.getViewName() != null
+                        && !modelAndView.getViewName().startsWith("redirect:")
+                        && !modelAndView.getViewName().startsWith("forward:")) {
+                    request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+                    request.setAttribute(RENDER_START, System.nanoTime());
+                }
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                if (request.getAttribute(RENDER_START) instanceof Long start) {
+                    Timer.builder("view.render")
+                            .description("Time spent rendering Thymeleaf templates")
+                            .tag("view", (String) request.getAttribute(VIEW_NAME))
+                            .tag("exception", ex == null ? "none" : ex.getClass().getSimpleName())
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+}